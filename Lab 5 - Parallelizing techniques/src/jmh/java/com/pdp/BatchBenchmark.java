@@ -0,0 +1,67 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Throughput of many independent pairs: one-by-one loop vs BatchMultiplier.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BatchBenchmark {
+
+    private static final int PAIRS = 1000;
+
+    @Param({"64", "512"})
+    public int size;
+
+    @Param({"1", "4", "12"})
+    public int threads;
+
+    private List<PolynomialPair> batch;
+    private ForkJoinPool pool;
+    private BatchMultiplier batchMultiplier;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        batch = new ArrayList<>(PAIRS);
+        for (int i = 0; i < PAIRS; i++) {
+            batch.add(new PolynomialPair(
+                    LongSequentialBenchmark.randomPolynomial(random, size, 1000),
+                    LongSequentialBenchmark.randomPolynomial(random, size, 1000)));
+        }
+        pool = new ForkJoinPool(threads);
+        batchMultiplier = new BatchMultiplier(pool);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public List<LongPolynomial> oneByOne() {
+        List<LongPolynomial> results = new ArrayList<>(batch.size());
+        for (PolynomialPair pair : batch) {
+            results.add(PolynomialMultiplier.multiply(pair.p, pair.q));
+        }
+        return results;
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(PAIRS)
+    public List<LongPolynomial> batch() throws InterruptedException {
+        return batchMultiplier.multiplyAll(batch);
+    }
+}
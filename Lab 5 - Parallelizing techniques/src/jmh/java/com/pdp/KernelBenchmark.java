@@ -0,0 +1,57 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Scalar vs Vector API schoolbook kernel, on its own and as the Karatsuba leaf.
+ * Needs JDK 17+ (the fork adds the jdk.incubator.vector module).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 1, jvmArgsAppend = {"--add-modules", "jdk.incubator.vector"})
+@State(Scope.Benchmark)
+public class KernelBenchmark {
+
+    @Param({"64", "512", "4096"})
+    public int size;
+
+    @Param({ConvolutionKernels.SCALAR, ConvolutionKernels.VECTOR})
+    public String kernel;
+
+    private LongPolynomial p;
+    private LongPolynomial q;
+    private long[] out;
+    private ConvolutionKernel selected;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        p = LongSequentialBenchmark.randomPolynomial(random, size, 1000);
+        q = LongSequentialBenchmark.randomPolynomial(random, size, 1000);
+        out = new long[2 * size - 1];
+        if (ConvolutionKernels.VECTOR.equals(kernel) && !ConvolutionKernels.isVectorAvailable()) {
+            // byName would quietly measure the scalar kernel under the vector label
+            throw new IllegalStateException("Vector kernel not available");
+        }
+        selected = ConvolutionKernels.byName(kernel);
+        ConvolutionKernels.set(selected);
+    }
+
+    @Benchmark
+    public long[] schoolbook() {
+        Arrays.fill(out, 0);
+        selected.multiplyAccumulate(p.powers, 0, size, q.powers, 0, size, out, 0);
+        return out;
+    }
+
+    @Benchmark
+    public LongPolynomial inPlaceKaratsuba() {
+        return InPlaceKaratsuba.local().multiply(p, q);
+    }
+}
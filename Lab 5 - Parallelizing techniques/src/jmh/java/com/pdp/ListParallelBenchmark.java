@@ -0,0 +1,56 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel algorithms on the List<Integer> based Polynomial, by thread count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListParallelBenchmark {
+
+    @Param({"1024", "8192", "32768"})
+    public int size;
+
+    @Param({"1", "4", "12"})
+    public int threads;
+
+    private Polynomial p;
+    private Polynomial q;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        p = new Polynomial(ListSequentialBenchmark.randomList(random, size, 40));
+        q = new Polynomial(ListSequentialBenchmark.randomList(random, size, 40));
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public Polynomial multiplyParallel() throws InterruptedException {
+        return p.multiplyParallel(q, threads);
+    }
+
+    /**
+     * Same path as Main.karatsubaParallel, but on a pool with the requested parallelism.
+     */
+    @Benchmark
+    public Polynomial karatsubaParallel() {
+        return Karatsuba.parallel(LongPolynomial.fromPolynomial(p), LongPolynomial.fromPolynomial(q), pool)
+                .toPolynomial();
+    }
+}
@@ -0,0 +1,52 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential algorithms on the List<Integer> based Polynomial. Coefficients stay below 40
+ * (as in Main) so the int results do not overflow.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class ListSequentialBenchmark {
+
+    @Param({"1024", "8192", "32768"})
+    public int size;
+
+    private Polynomial p;
+    private Polynomial q;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        p = new Polynomial(randomList(random, size, 40));
+        q = new Polynomial(randomList(random, size, 40));
+    }
+
+    @Benchmark
+    public Polynomial multiply() {
+        return p.multiply(q);
+    }
+
+    @Benchmark
+    public Polynomial karatsubaSequential() {
+        return Main.karatsubaSequential(p, q);
+    }
+
+    static List<Integer> randomList(Random random, int size, int bound) {
+        List<Integer> list = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            list.add(random.nextInt(bound));
+        }
+        return list;
+    }
+}
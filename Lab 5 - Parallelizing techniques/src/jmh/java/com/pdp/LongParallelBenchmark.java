@@ -0,0 +1,70 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Parallel algorithms on LongPolynomial, by size, coefficient bound and thread count.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongParallelBenchmark {
+
+    @Param({"1024", "8192", "32768"})
+    public int size;
+
+    @Param({"40", "1000000"})
+    public int bound;
+
+    @Param({"1", "4", "12"})
+    public int threads;
+
+    private LongPolynomial p;
+    private LongPolynomial q;
+    private ForkJoinPool pool;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        p = LongSequentialBenchmark.randomPolynomial(random, size, bound);
+        q = LongSequentialBenchmark.randomPolynomial(random, size, bound);
+        pool = new ForkJoinPool(threads);
+    }
+
+    @TearDown
+    public void tearDown() {
+        pool.shutdown();
+    }
+
+    @Benchmark
+    public LongPolynomial multiplyParallel() throws InterruptedException {
+        return p.multiplyParallel(q, threads);
+    }
+
+    @Benchmark
+    public LongPolynomial blockedParallel() {
+        return BlockedMultiplier.parallel(p, q, pool);
+    }
+
+    @Benchmark
+    public LongPolynomial karatsubaParallel() {
+        return Karatsuba.parallel(p, q, pool);
+    }
+
+    @Benchmark
+    public LongPolynomial toomCook3Parallel() {
+        return ToomCook3.parallel(p, q, pool);
+    }
+
+    @Benchmark
+    public LongPolynomial nttParallel() {
+        return NttMultiplier.multiply(p, q, pool);
+    }
+}
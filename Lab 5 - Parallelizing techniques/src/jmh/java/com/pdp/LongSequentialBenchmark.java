@@ -0,0 +1,77 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Sequential algorithms on LongPolynomial, by size and coefficient bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class LongSequentialBenchmark {
+
+    @Param({"1024", "8192", "32768"})
+    public int size;
+
+    @Param({"40", "1000000"})
+    public int bound;
+
+    private LongPolynomial p;
+    private LongPolynomial q;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        p = randomPolynomial(random, size, bound);
+        q = randomPolynomial(random, size, bound);
+    }
+
+    @Benchmark
+    public LongPolynomial multiply() {
+        return p.multiply(q);
+    }
+
+    @Benchmark
+    public LongPolynomial blocked() {
+        return BlockedMultiplier.sequential(p, q);
+    }
+
+    @Benchmark
+    public LongPolynomial karatsubaSequential() {
+        return Karatsuba.sequential(p, q);
+    }
+
+    @Benchmark
+    public LongPolynomial inPlaceKaratsuba() {
+        return InPlaceKaratsuba.local().multiply(p, q);
+    }
+
+    @Benchmark
+    public LongPolynomial toomCook3() {
+        return ToomCook3.sequential(p, q);
+    }
+
+    @Benchmark
+    public LongPolynomial ntt() {
+        return NttMultiplier.multiply(p, q);
+    }
+
+    @Benchmark
+    public LongPolynomial auto() {
+        return PolynomialMultiplier.multiply(p, q);
+    }
+
+    static LongPolynomial randomPolynomial(Random random, int size, int bound) {
+        long[] powers = new long[size];
+        for (int i = 0; i < size; i++) {
+            powers[i] = random.nextInt(bound);
+        }
+        return new LongPolynomial(powers);
+    }
+}
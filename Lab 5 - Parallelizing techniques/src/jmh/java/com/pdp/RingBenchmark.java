@@ -0,0 +1,74 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the coefficient ring kernels against the unchecked long schoolbook.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RingBenchmark {
+
+    private static final long MODULUS = 998_244_353L;
+
+    @Param({"64", "512", "2048"})
+    public int size;
+
+    private long[] a;
+    private long[] b;
+    private long[] out;
+    private MultiLimbPolynomial wideP;
+    private MultiLimbPolynomial wideQ;
+    private final MultiLimbMultiplier multiLimb = new MultiLimbMultiplier();
+    private final CoefficientRing exact = new ExactLongRing();
+    private final CoefficientRing barrett = new BarrettRing(MODULUS);
+    private final CoefficientRing montgomery = new MontgomeryRing(MODULUS);
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        LongPolynomial p = LongSequentialBenchmark.randomPolynomial(random, size, (int) (MODULUS - 1));
+        LongPolynomial q = LongSequentialBenchmark.randomPolynomial(random, size, (int) (MODULUS - 1));
+        a = p.powers;
+        b = q.powers;
+        out = new long[2 * size - 1];
+        wideP = MultiLimbPolynomial.fromLongPolynomial(p, 2);
+        wideQ = MultiLimbPolynomial.fromLongPolynomial(q, 2);
+    }
+
+    @Benchmark
+    public long[] unchecked() {
+        LongPolynomial.multiplyRange(a, b, out, 0, out.length);
+        return out;
+    }
+
+    @Benchmark
+    public long[] exact() {
+        exact.multiply(a, b, out);
+        return out;
+    }
+
+    @Benchmark
+    public long[] barrett() {
+        barrett.multiply(a, b, out);
+        return out;
+    }
+
+    @Benchmark
+    public long[] montgomery() {
+        montgomery.multiply(a, b, out);
+        return out;
+    }
+
+    @Benchmark
+    public MultiLimbPolynomial multiLimb() {
+        return multiLimb.multiply(wideP, wideQ);
+    }
+}
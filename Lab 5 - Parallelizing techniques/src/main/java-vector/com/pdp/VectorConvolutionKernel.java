@@ -0,0 +1,32 @@
+package com.pdp;
+
+import jdk.incubator.vector.LongVector;
+import jdk.incubator.vector.VectorSpecies;
+
+/**
+ * Schoolbook kernel on the Vector API: a[i] is broadcast and multiplied against a whole
+ * vector-width slice of b, which is added to the matching slice of out. The tail of each row
+ * is done with scalar code.
+ */
+public final class VectorConvolutionKernel implements ConvolutionKernel {
+
+    private static final VectorSpecies<Long> SPECIES = LongVector.SPECIES_PREFERRED;
+
+    @Override
+    public void multiplyAccumulate(long[] a, int aOff, int aLen, long[] b, int bOff, int bLen, long[] out, int outOff) {
+        int upper = SPECIES.loopBound(bLen);
+        for (int i = 0; i < aLen; i++) {
+            long ai = a[aOff + i];
+            int base = outOff + i;
+            int j = 0;
+            for (; j < upper; j += SPECIES.length()) {
+                LongVector bv = LongVector.fromArray(SPECIES, b, bOff + j);
+                LongVector ov = LongVector.fromArray(SPECIES, out, base + j);
+                ov.add(bv.mul(ai)).intoArray(out, base + j);
+            }
+            for (; j < bLen; j++) {
+                out[base + j] += ai * b[bOff + j];
+            }
+        }
+    }
+}
@@ -0,0 +1,76 @@
+package com.pdp;
+
+import java.util.Arrays;
+
+/**
+ * Integers modulo any modulus in [3, 2^31), products reduced with Barrett reduction
+ * (one multiplyHigh and one multiply instead of a division).
+ */
+public final class BarrettRing implements CoefficientRing {
+
+    private static final long MAX_MODULUS = 1L << 31;
+
+    private final long modulus;
+    // floor(2^64 / modulus), as an unsigned value it is < 2^63 for modulus > 2
+    private final long mu;
+
+    public BarrettRing(long modulus) {
+        if (modulus < 3 || modulus >= MAX_MODULUS) {
+            throw new IllegalArgumentException("Modulus must be in [3, 2^31): " + modulus);
+        }
+        this.modulus = modulus;
+        this.mu = Long.divideUnsigned(-1L, modulus);
+    }
+
+    public long modulus() {
+        return modulus;
+    }
+
+    @Override
+    public long normalize(long value) {
+        return Math.floorMod(value, modulus);
+    }
+
+    @Override
+    public long add(long a, long b) {
+        long sum = a + b;
+        return sum >= modulus ? sum - modulus : sum;
+    }
+
+    @Override
+    public long subtract(long a, long b) {
+        long difference = a - b;
+        return difference < 0 ? difference + modulus : difference;
+    }
+
+    /**
+     * x mod modulus for 0 <= x < 2^62.
+     */
+    long reduce(long x) {
+        long q = Math.multiplyHigh(x, mu);
+        long r = x - q * modulus;
+        while (r >= modulus) {
+            r -= modulus;
+        }
+        return r;
+    }
+
+    /**
+     * Expects a and b already reduced to [0, modulus).
+     */
+    @Override
+    public void multiply(long[] a, long[] b, long[] out) {
+        int resultLen = a.length + b.length - 1;
+        Arrays.fill(out, 0, resultLen, 0);
+        // reduced products are < 2^31, so up to 2^32 of them can be summed before reducing again
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] += reduce(ai * b[j]);
+            }
+        }
+        for (int k = 0; k < resultLen; k++) {
+            out[k] = reduce(out[k]);
+        }
+    }
+}
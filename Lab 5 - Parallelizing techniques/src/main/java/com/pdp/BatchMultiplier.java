@@ -0,0 +1,163 @@
+package com.pdp;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorCompletionService;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.Future;
+import java.util.function.BiConsumer;
+import java.util.function.Consumer;
+
+/**
+ * Multiplies many independent pairs on one shared pool, tuned for pairs per second.
+ *
+ * Small pairs (schoolbook / Karatsuba range) are grouped into tasks of about {@link #CHUNK_WORK}
+ * multiply-accumulates and each pair runs sequentially inside its task (whole-pair parallelism).
+ * Large pairs (Toom-3 / NTT range) get a task of their own that uses the parallel algorithm on
+ * the same pool (intra-pair parallelism).
+ */
+public class BatchMultiplier {
+
+    static final long CHUNK_WORK = 1L << 20;
+
+    private final ForkJoinPool pool;
+    private final int maxInFlight;
+
+    public BatchMultiplier() {
+        this(ForkJoinPool.commonPool());
+    }
+
+    public BatchMultiplier(ForkJoinPool pool) {
+        this.pool = pool;
+        this.maxInFlight = 4 * pool.getParallelism();
+    }
+
+    /**
+     * Returns the products in the same order as the pairs.
+     */
+    public List<LongPolynomial> multiplyAll(List<PolynomialPair> pairs) throws InterruptedException {
+        LongPolynomial[] results = new LongPolynomial[pairs.size()];
+        List<Future<Chunk>> futures = new ArrayList<>();
+
+        Chunk chunk = new Chunk();
+        for (int i = 0; i < pairs.size(); i++) {
+            chunk = add(chunk, i, pairs.get(i), c -> futures.add(pool.submit(c)));
+        }
+        if (!chunk.isEmpty()) {
+            futures.add(pool.submit(chunk));
+        }
+
+        for (Future<Chunk> future : futures) {
+            Chunk done = get(future);
+            for (int k = 0; k < done.indexes.size(); k++) {
+                results[done.indexes.get(k)] = done.results.get(k);
+            }
+        }
+        return List.of(results);
+    }
+
+    /**
+     * Hands every product to the consumer (on the calling thread) as soon as its task completes,
+     * together with the position of the pair in the input. At most a few tasks per worker are in
+     * flight, so the input can be an unbounded stream.
+     */
+    public void multiplyAll(Iterator<PolynomialPair> pairs, BiConsumer<Integer, LongPolynomial> consumer)
+            throws InterruptedException {
+        ExecutorCompletionService<Chunk> completion = new ExecutorCompletionService<>(pool);
+        int[] inFlight = {0};
+
+        Chunk chunk = new Chunk();
+        for (int i = 0; pairs.hasNext(); i++) {
+            chunk = add(chunk, i, pairs.next(), c -> {
+                completion.submit(c);
+                inFlight[0]++;
+            });
+            while (inFlight[0] >= maxInFlight) {
+                deliver(get(completion.take()), consumer);
+                inFlight[0]--;
+            }
+        }
+        if (!chunk.isEmpty()) {
+            completion.submit(chunk);
+            inFlight[0]++;
+        }
+        while (inFlight[0] > 0) {
+            deliver(get(completion.take()), consumer);
+            inFlight[0]--;
+        }
+    }
+
+    /**
+     * Adds a pair to the current chunk, or submits it alone if it is large. Returns the chunk to
+     * continue filling.
+     */
+    private Chunk add(Chunk chunk, int index, PolynomialPair pair, Consumer<Chunk> submit) {
+        if (isLarge(pair)) {
+            Chunk single = new Chunk();
+            single.add(index, pair);
+            single.parallel = true;
+            submit.accept(single);
+            return chunk;
+        }
+        chunk.add(index, pair);
+        if (chunk.work >= CHUNK_WORK) {
+            submit.accept(chunk);
+            return new Chunk();
+        }
+        return chunk;
+    }
+
+    private static boolean isLarge(PolynomialPair pair) {
+        PolynomialMultiplier.Algorithm algorithm = PolynomialMultiplier.choose(pair.p.size(), pair.q.size());
+        return algorithm == PolynomialMultiplier.Algorithm.TOOM3 || algorithm == PolynomialMultiplier.Algorithm.NTT;
+    }
+
+    private static void deliver(Chunk chunk, BiConsumer<Integer, LongPolynomial> consumer) {
+        for (int k = 0; k < chunk.indexes.size(); k++) {
+            consumer.accept(chunk.indexes.get(k), chunk.results.get(k));
+        }
+    }
+
+    private static Chunk get(Future<Chunk> future) throws InterruptedException {
+        try {
+            return future.get();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("Batch multiplication failed", e.getCause());
+        }
+    }
+
+    /**
+     * A group of pairs computed by one task; results are filled in by call().
+     */
+    private final class Chunk implements Callable<Chunk> {
+        final List<Integer> indexes = new ArrayList<>();
+        final List<PolynomialPair> pairs = new ArrayList<>();
+        final List<LongPolynomial> results = new ArrayList<>();
+        long work;
+        boolean parallel;
+
+        void add(int index, PolynomialPair pair) {
+            indexes.add(index);
+            pairs.add(pair);
+            // empty pairs still cost a task slot, so a run of them cannot hold a chunk back forever
+            work += Math.max(1, pair.work());
+        }
+
+        boolean isEmpty() {
+            return pairs.isEmpty();
+        }
+
+        @Override
+        public Chunk call() {
+            for (PolynomialPair pair : pairs) {
+                results.add(parallel
+                        ? PolynomialMultiplier.multiplyParallel(pair.p, pair.q, pool)
+                        : PolynomialMultiplier.multiply(pair.p, pair.q));
+            }
+            return this;
+        }
+    }
+}
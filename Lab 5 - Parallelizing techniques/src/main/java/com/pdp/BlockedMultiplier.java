@@ -0,0 +1,101 @@
+package com.pdp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Cache-blocked schoolbook multiplication.
+ *
+ * The result is computed one window of {@link #blockSize()} coefficients at a time. For a window
+ * [s, e) every row a[i] only touches b[s - i .. e - i), so the output window stays in cache and b is
+ * read as a slowly sliding slice instead of being streamed in full for every i. Windows are
+ * disjoint, so the parallel version hands them to ForkJoin tasks without any locking.
+ * The window size can be set with -Dpdp.block.size=N.
+ */
+public final class BlockedMultiplier {
+
+    private static final int BLOCK_SIZE = Math.max(16, Integer.getInteger("pdp.block.size", 2048));
+
+    // above this many coefficients in b, LongPolynomial.multiply switches to the blocked version
+    static final int STREAMING_LIMIT = 32 * BLOCK_SIZE;
+
+    private BlockedMultiplier() {}
+
+    public static int blockSize() {
+        return BLOCK_SIZE;
+    }
+
+    public static LongPolynomial sequential(LongPolynomial p, LongPolynomial q) {
+        if (p.size() == 0 || q.size() == 0) {
+            return new LongPolynomial(new long[0]);
+        }
+        long[] out = new long[p.size() + q.size() - 1];
+        multiplyWindows(p.powers, q.powers, out, 0, windowCount(out.length));
+        return new LongPolynomial(out);
+    }
+
+    public static LongPolynomial parallel(LongPolynomial p, LongPolynomial q) {
+        return parallel(p, q, ForkJoinPool.commonPool());
+    }
+
+    public static LongPolynomial parallel(LongPolynomial p, LongPolynomial q, ForkJoinPool pool) {
+        if (p.size() == 0 || q.size() == 0) {
+            return new LongPolynomial(new long[0]);
+        }
+        long[] out = new long[p.size() + q.size() - 1];
+        pool.invoke(new WindowTask(p.powers, q.powers, out, 0, windowCount(out.length)));
+        return new LongPolynomial(out);
+    }
+
+    private static int windowCount(int resultLen) {
+        return (resultLen + BLOCK_SIZE - 1) / BLOCK_SIZE;
+    }
+
+    /**
+     * Accumulates windows [fromWindow, toWindow) of a * b into out (which must start zeroed).
+     */
+    static void multiplyWindows(long[] a, long[] b, long[] out, int fromWindow, int toWindow) {
+        ConvolutionKernel kernel = ConvolutionKernels.get();
+        int n = a.length;
+        int m = b.length;
+        for (int w = fromWindow; w < toWindow; w++) {
+            int start = w * BLOCK_SIZE;
+            int end = Math.min(out.length, start + BLOCK_SIZE);
+            int iMin = Math.max(0, start - (m - 1));
+            int iMax = Math.min(n - 1, end - 1);
+            for (int i = iMin; i <= iMax; i++) {
+                int jLo = Math.max(0, start - i);
+                int jHi = Math.min(m, end - i);
+                kernel.multiplyAccumulate(a, i, 1, b, jLo, jHi - jLo, out, i + jLo);
+            }
+        }
+    }
+
+    private static final class WindowTask extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] a;
+        private final long[] b;
+        private final long[] out;
+        private final int fromWindow;
+        private final int toWindow;
+
+        WindowTask(long[] a, long[] b, long[] out, int fromWindow, int toWindow) {
+            this.a = a;
+            this.b = b;
+            this.out = out;
+            this.fromWindow = fromWindow;
+            this.toWindow = toWindow;
+        }
+
+        @Override
+        protected void compute() {
+            if (toWindow - fromWindow <= 1) {
+                multiplyWindows(a, b, out, fromWindow, toWindow);
+                return;
+            }
+            int mid = (fromWindow + toWindow) >>> 1;
+            invokeAll(new WindowTask(a, b, out, fromWindow, mid), new WindowTask(a, b, out, mid, toWindow));
+        }
+    }
+}
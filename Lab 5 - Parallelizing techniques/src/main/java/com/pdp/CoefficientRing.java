@@ -0,0 +1,53 @@
+package com.pdp;
+
+/**
+ * Coefficient arithmetic used by a multiplication kernel, for coefficients that fit in one long.
+ *
+ * {@link #multiply(long[], long[], long[])} is the allocation-free kernel: it overwrites
+ * out[0 .. a.length + b.length - 1) and allocates nothing. {@link #add} and {@link #subtract}
+ * let recursive algorithms combine partial products in the ring, see
+ * {@link PolynomialMultiplier#multiply(LongPolynomial, LongPolynomial, CoefficientRing)}.
+ * For wider coefficients see {@link MultiLimbMultiplier}.
+ */
+public interface CoefficientRing {
+
+    /**
+     * Canonical representative of value in this ring.
+     */
+    long normalize(long value);
+
+    /**
+     * a + b for normalized a and b.
+     */
+    long add(long a, long b);
+
+    /**
+     * a - b for normalized a and b.
+     */
+    long subtract(long a, long b);
+
+    void multiply(long[] a, long[] b, long[] out);
+
+    default LongPolynomial normalize(LongPolynomial p) {
+        return new LongPolynomial(normalizeAll(p.powers));
+    }
+
+    default LongPolynomial multiply(LongPolynomial p, LongPolynomial q) {
+        if (p.size() == 0 || q.size() == 0) {
+            return new LongPolynomial(new long[0]);
+        }
+        long[] a = normalizeAll(p.powers);
+        long[] b = normalizeAll(q.powers);
+        long[] out = new long[a.length + b.length - 1];
+        multiply(a, b, out);
+        return new LongPolynomial(out);
+    }
+
+    private long[] normalizeAll(long[] powers) {
+        long[] normalized = new long[powers.length];
+        for (int i = 0; i < powers.length; i++) {
+            normalized[i] = normalize(powers[i]);
+        }
+        return normalized;
+    }
+}
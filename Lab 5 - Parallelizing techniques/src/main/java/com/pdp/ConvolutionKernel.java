@@ -0,0 +1,13 @@
+package com.pdp;
+
+/**
+ * Inner multiply-accumulate loop of the schoolbook multiplication:
+ * out[outOff + i + j] += a[aOff + i] * b[bOff + j] for i < aLen, j < bLen.
+ *
+ * Used by {@link LongPolynomial#multiply} and as the leaf of the Karatsuba variants.
+ * Pick the implementation with {@link ConvolutionKernels#get()}.
+ */
+public interface ConvolutionKernel {
+
+    void multiplyAccumulate(long[] a, int aOff, int aLen, long[] b, int bOff, int bLen, long[] out, int outOff);
+}
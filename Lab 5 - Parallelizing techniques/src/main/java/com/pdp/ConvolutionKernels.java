@@ -0,0 +1,53 @@
+package com.pdp;
+
+/**
+ * Chooses the schoolbook kernel at runtime with -Dpdp.kernel=scalar|vector (default scalar).
+ *
+ * The vector kernel is built from src/main/java-vector only on JDK 17+ and needs
+ * --add-modules jdk.incubator.vector at runtime; if it is not available the scalar kernel is used.
+ */
+public final class ConvolutionKernels {
+
+    public static final String SCALAR = "scalar";
+    public static final String VECTOR = "vector";
+
+    private static final String VECTOR_KERNEL_CLASS = "com.pdp.VectorConvolutionKernel";
+
+    private static volatile ConvolutionKernel kernel = byName(System.getProperty("pdp.kernel", SCALAR));
+
+    private ConvolutionKernels() {}
+
+    public static ConvolutionKernel get() {
+        return kernel;
+    }
+
+    public static void set(ConvolutionKernel newKernel) {
+        kernel = newKernel;
+    }
+
+    /**
+     * Returns the kernel with the given name, falling back silently to the scalar one when the
+     * vector kernel cannot be loaded; callers that care can check {@link #isVectorAvailable()}.
+     */
+    public static ConvolutionKernel byName(String name) {
+        if (VECTOR.equalsIgnoreCase(name)) {
+            ConvolutionKernel vector = loadVector();
+            if (vector != null) {
+                return vector;
+            }
+        }
+        return new ScalarConvolutionKernel();
+    }
+
+    public static boolean isVectorAvailable() {
+        return loadVector() != null;
+    }
+
+    private static ConvolutionKernel loadVector() {
+        try {
+            return (ConvolutionKernel) Class.forName(VECTOR_KERNEL_CLASS).getDeclaredConstructor().newInstance();
+        } catch (ReflectiveOperationException | LinkageError e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.pdp;
+
+import java.util.Arrays;
+
+/**
+ * Plain long coefficients, but every product and sum is overflow checked:
+ * instead of wrapping silently the kernel throws ArithmeticException.
+ * Under Karatsuba the operand sums and the middle product are checked as well, so a result
+ * whose coefficients are just below the long range can still be rejected.
+ */
+public final class ExactLongRing implements CoefficientRing {
+
+    @Override
+    public long normalize(long value) {
+        return value;
+    }
+
+    @Override
+    public long add(long a, long b) {
+        return Math.addExact(a, b);
+    }
+
+    @Override
+    public long subtract(long a, long b) {
+        return Math.subtractExact(a, b);
+    }
+
+    @Override
+    public void multiply(long[] a, long[] b, long[] out) {
+        Arrays.fill(out, 0, a.length + b.length - 1, 0);
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] = Math.addExact(out[i + j], Math.multiplyExact(ai, b[j]));
+            }
+        }
+    }
+}
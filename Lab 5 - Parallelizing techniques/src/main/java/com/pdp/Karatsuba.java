@@ -0,0 +1,241 @@
+package com.pdp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Karatsuba on LongPolynomial, sequential and ForkJoin based.
+ *
+ * Below {@link #threshold()} coefficients the recursion switches to the schoolbook kernel
+ * ({@link LongPolynomial#multiply}), or to the ring's kernel for the {@link CoefficientRing} variant.
+ * The threshold can be fixed with -Dpdp.karatsuba.threshold=N, otherwise it is calibrated once,
+ * the first time it is needed.
+ */
+public final class Karatsuba {
+
+    private static final String THRESHOLD_PROPERTY = "pdp.karatsuba.threshold";
+    private static final int MIN_THRESHOLD = 4;
+    private static final int MAX_THRESHOLD = 1024;
+
+    // subproblems smaller than PARALLEL_FACTOR * threshold are not forked
+    private static final int PARALLEL_FACTOR = 4;
+
+    private static volatile int threshold = -1;
+
+    private Karatsuba() {}
+
+    public static int threshold() {
+        int t = threshold;
+        if (t < 0) {
+            synchronized (Karatsuba.class) {
+                if (threshold < 0) {
+                    Integer configured = Integer.getInteger(THRESHOLD_PROPERTY);
+                    threshold = configured != null ? Math.max(MIN_THRESHOLD, configured) : calibrate();
+                }
+                t = threshold;
+            }
+        }
+        return t;
+    }
+
+    public static void setThreshold(int newThreshold) {
+        threshold = Math.max(MIN_THRESHOLD, newThreshold);
+    }
+
+    /**
+     * Finds the smallest size (power of two) at which one Karatsuba level on top of the
+     * schoolbook kernel beats the schoolbook kernel alone.
+     */
+    public static int calibrate() {
+        for (int size = MIN_THRESHOLD * 2; size <= MAX_THRESHOLD; size *= 2) {
+            LongPolynomial p = calibrationPolynomial(size);
+            LongPolynomial q = calibrationPolynomial(size);
+
+            long schoolbook = Long.MAX_VALUE;
+            long karatsuba = Long.MAX_VALUE;
+            int rounds = Math.max(2, (1 << 13) / size);
+            for (int run = 0; run < 3; run++) {
+                long t0 = System.nanoTime();
+                for (int r = 0; r < rounds; r++) {
+                    p.multiply(q);
+                }
+                long t1 = System.nanoTime();
+                for (int r = 0; r < rounds; r++) {
+                    oneLevel(p, q);
+                }
+                long t2 = System.nanoTime();
+                schoolbook = Math.min(schoolbook, t1 - t0);
+                karatsuba = Math.min(karatsuba, t2 - t1);
+            }
+
+            if (karatsuba < schoolbook) {
+                return size / 2;
+            }
+        }
+        return MAX_THRESHOLD;
+    }
+
+    public static LongPolynomial sequential(LongPolynomial p, LongPolynomial q) {
+        int t = threshold();
+        if (p.size() <= t || q.size() <= t) {
+            return p.multiply(q);
+        }
+
+        int split = Math.max(p.degree(), q.degree()) / 2 + 1;
+        LongPolynomial p1 = p.slice(0, Math.min(split, p.size()));
+        LongPolynomial p2 = p.slice(Math.min(split, p.size()), p.size());
+        LongPolynomial q1 = q.slice(0, Math.min(split, q.size()));
+        LongPolynomial q2 = q.slice(Math.min(split, q.size()), q.size());
+
+        LongPolynomial z0 = sequential(p1, q1);
+        LongPolynomial z1 = sequential(p1.add(p2), q1.add(q2));
+        LongPolynomial z2 = sequential(p2, q2);
+
+        return combine(z0, z1, z2, split, p.size() + q.size() - 1);
+    }
+
+    /**
+     * Same recursion with every coefficient operation done in ring. Expects normalized operands.
+     */
+    public static LongPolynomial sequential(LongPolynomial p, LongPolynomial q, CoefficientRing ring) {
+        if (p.size() == 0 || q.size() == 0) {
+            return new LongPolynomial(new long[0]);
+        }
+        int t = threshold();
+        if (p.size() <= t || q.size() <= t) {
+            long[] out = new long[p.size() + q.size() - 1];
+            ring.multiply(p.powers, q.powers, out);
+            return new LongPolynomial(out);
+        }
+
+        int split = Math.max(p.degree(), q.degree()) / 2 + 1;
+        LongPolynomial p1 = p.slice(0, Math.min(split, p.size()));
+        LongPolynomial p2 = p.slice(Math.min(split, p.size()), p.size());
+        LongPolynomial q1 = q.slice(0, Math.min(split, q.size()));
+        LongPolynomial q2 = q.slice(Math.min(split, q.size()), q.size());
+
+        LongPolynomial z0 = sequential(p1, q1, ring);
+        LongPolynomial z1 = sequential(add(p1, p2, ring), add(q1, q2, ring), ring);
+        LongPolynomial z2 = sequential(p2, q2, ring);
+
+        return combine(z0, z1, z2, split, p.size() + q.size() - 1, ring);
+    }
+
+    public static LongPolynomial parallel(LongPolynomial p, LongPolynomial q) {
+        return parallel(p, q, ForkJoinPool.commonPool());
+    }
+
+    public static LongPolynomial parallel(LongPolynomial p, LongPolynomial q, ForkJoinPool pool) {
+        return pool.invoke(new Task(p, q, threshold()));
+    }
+
+    /**
+     * z2 * X^(2*split) + (z1 - z2 - z0) * X^split + z0, written directly into an array of the final length.
+     */
+    static LongPolynomial combine(LongPolynomial z0, LongPolynomial z1, LongPolynomial z2, int split, int resultLen) {
+        long[] result = new long[resultLen];
+        // terms of z1 - z2 - z0 past resultLen - split cancel out, so they are skipped
+        for (int i = 0; i < z0.size(); i++) {
+            result[i] += z0.powers[i];
+        }
+        for (int i = 0; i < z2.size(); i++) {
+            result[i + 2 * split] += z2.powers[i];
+        }
+        for (int i = 0; i + split < resultLen; i++) {
+            long middle = 0;
+            if (i < z1.size()) middle += z1.powers[i];
+            if (i < z0.size()) middle -= z0.powers[i];
+            if (i < z2.size()) middle -= z2.powers[i];
+            result[i + split] += middle;
+        }
+        return new LongPolynomial(result);
+    }
+
+    /**
+     * {@link #combine(LongPolynomial, LongPolynomial, LongPolynomial, int, int)} in ring.
+     */
+    static LongPolynomial combine(LongPolynomial z0, LongPolynomial z1, LongPolynomial z2, int split, int resultLen,
+                                  CoefficientRing ring) {
+        long[] result = new long[resultLen];
+        for (int i = 0; i < z0.size(); i++) {
+            result[i] = z0.powers[i];
+        }
+        for (int i = 0; i < z2.size(); i++) {
+            result[i + 2 * split] = ring.add(result[i + 2 * split], z2.powers[i]);
+        }
+        for (int i = 0; i + split < resultLen; i++) {
+            long middle = 0;
+            if (i < z1.size()) middle = z1.powers[i];
+            if (i < z0.size()) middle = ring.subtract(middle, z0.powers[i]);
+            if (i < z2.size()) middle = ring.subtract(middle, z2.powers[i]);
+            result[i + split] = ring.add(result[i + split], middle);
+        }
+        return new LongPolynomial(result);
+    }
+
+    private static LongPolynomial add(LongPolynomial p, LongPolynomial q, CoefficientRing ring) {
+        long[] result = new long[Math.max(p.size(), q.size())];
+        for (int i = 0; i < result.length; i++) {
+            result[i] = ring.add(i < p.size() ? p.powers[i] : 0, i < q.size() ? q.powers[i] : 0);
+        }
+        return new LongPolynomial(result);
+    }
+
+    private static LongPolynomial oneLevel(LongPolynomial p, LongPolynomial q) {
+        int split = Math.max(p.degree(), q.degree()) / 2 + 1;
+        LongPolynomial p1 = p.slice(0, split);
+        LongPolynomial p2 = p.slice(split, p.size());
+        LongPolynomial q1 = q.slice(0, split);
+        LongPolynomial q2 = q.slice(split, q.size());
+        return combine(p1.multiply(q1), p1.add(p2).multiply(q1.add(q2)), p2.multiply(q2),
+                split, p.size() + q.size() - 1);
+    }
+
+    private static LongPolynomial calibrationPolynomial(int size) {
+        long[] powers = new long[size];
+        for (int i = 0; i < size; i++) {
+            powers[i] = (i * 31L + 7) % 41;
+        }
+        return new LongPolynomial(powers);
+    }
+
+    private static final class Task extends RecursiveTask<LongPolynomial> {
+        private static final long serialVersionUID = 1L;
+
+        private final LongPolynomial p;
+        private final LongPolynomial q;
+        private final int threshold;
+
+        Task(LongPolynomial p, LongPolynomial q, int threshold) {
+            this.p = p;
+            this.q = q;
+            this.threshold = threshold;
+        }
+
+        @Override
+        protected LongPolynomial compute() {
+            if (p.size() <= threshold || q.size() <= threshold) {
+                return p.multiply(q);
+            }
+            if (Math.max(p.size(), q.size()) < PARALLEL_FACTOR * threshold) {
+                return sequential(p, q);
+            }
+
+            int split = Math.max(p.degree(), q.degree()) / 2 + 1;
+            LongPolynomial p1 = p.slice(0, Math.min(split, p.size()));
+            LongPolynomial p2 = p.slice(Math.min(split, p.size()), p.size());
+            LongPolynomial q1 = q.slice(0, Math.min(split, q.size()));
+            LongPolynomial q2 = q.slice(Math.min(split, q.size()), q.size());
+
+            Task t0 = new Task(p1, q1, threshold);
+            Task t1 = new Task(p1.add(p2), q1.add(q2), threshold);
+            t0.fork();
+            t1.fork();
+            LongPolynomial z2 = new Task(p2, q2, threshold).compute();
+            LongPolynomial z1 = t1.join();
+            LongPolynomial z0 = t0.join();
+
+            return combine(z0, z1, z2, split, p.size() + q.size() - 1);
+        }
+    }
+}
@@ -0,0 +1,160 @@
+package com.pdp;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Polynomial backed by a primitive long[] instead of a List<Integer>.
+ *
+ * Same operations as {@link Polynomial} (multiply, multiplyParallel, add, subtract, toPower),
+ * but without boxing in the inner loops. Coefficients and accumulators are long, so products
+ * of int-sized coefficients do not overflow silently.
+ */
+public class LongPolynomial {
+    public final long[] powers;
+
+    public LongPolynomial(long[] powers) {
+        this.powers = powers;
+    }
+
+    public static LongPolynomial fromPolynomial(Polynomial polynomial) {
+        long[] powers = new long[polynomial.powers.size()];
+        for (int i = 0; i < powers.length; i++) {
+            powers[i] = polynomial.powers.get(i);
+        }
+        return new LongPolynomial(powers);
+    }
+
+    /**
+     * Converts back to the list based representation.
+     * Throws ArithmeticException if a coefficient does not fit in an int.
+     */
+    public Polynomial toPolynomial() {
+        List<Integer> list = new ArrayList<>(powers.length);
+        for (long power : powers) {
+            list.add(Math.toIntExact(power));
+        }
+        return new Polynomial(list);
+    }
+
+    public int degree() {
+        return powers.length - 1;
+    }
+
+    public int size() {
+        return powers.length;
+    }
+
+    public LongPolynomial slice(int from, int to) {
+        return new LongPolynomial(Arrays.copyOfRange(powers, from, to));
+    }
+
+    public LongPolynomial multiply(LongPolynomial other) {
+        long[] a = this.powers;
+        long[] b = other.powers;
+        if (a.length == 0 || b.length == 0) {
+            return new LongPolynomial(new long[0]);
+        }
+        if (b.length > BlockedMultiplier.STREAMING_LIMIT) {
+            // rows of b and result no longer fit in cache, go through the output windows instead
+            return BlockedMultiplier.sequential(this, other);
+        }
+        long[] result = new long[a.length + b.length - 1];
+        ConvolutionKernels.get().multiplyAccumulate(a, 0, a.length, b, 0, b.length, result, 0);
+        return new LongPolynomial(result);
+    }
+
+    /**
+     * Splits the result coefficient indices among the threads; each thread owns a disjoint slice
+     * of the result array, so there is no locking and no shared accumulator.
+     */
+    public LongPolynomial multiplyParallel(LongPolynomial other, int threadCount) throws InterruptedException {
+        if (this.powers.length == 0 || other.powers.length == 0) {
+            return new LongPolynomial(new long[0]);
+        }
+        int resultLen = this.powers.length + other.powers.length - 1;
+        long[] result = new long[resultLen];
+
+        List<Thread> threads = new ArrayList<>();
+        int chunk = (resultLen + threadCount - 1) / threadCount;
+
+        for (int start = 0; start < resultLen; start += chunk) {
+            int startIndex = start;
+            int finalIndex = Math.min(resultLen, start + chunk);
+            Thread thread = new Thread(() -> multiplyRange(this.powers, other.powers, result, startIndex, finalIndex));
+            thread.start();
+            threads.add(thread);
+        }
+
+        for (Thread thread : threads) {
+            thread.join();
+        }
+
+        return new LongPolynomial(result);
+    }
+
+    /**
+     * Computes result[k] for k in [start, end) as the full convolution sum of a and b.
+     */
+    static void multiplyRange(long[] a, long[] b, long[] result, int start, int end) {
+        int n = a.length;
+        int m = b.length;
+        for (int k = start; k < end; k++) {
+            long sum = 0;
+            int iMin = Math.max(0, k - (m - 1));
+            int iMax = Math.min(n - 1, k);
+            for (int i = iMin; i <= iMax; i++) {
+                sum += a[i] * b[k - i];
+            }
+            result[k] = sum;
+        }
+    }
+
+    public LongPolynomial add(LongPolynomial other) {
+        long[] result = new long[Math.max(this.powers.length, other.powers.length)];
+        for (int i = 0; i < this.powers.length; i++) {
+            result[i] = this.powers[i];
+        }
+        for (int i = 0; i < other.powers.length; i++) {
+            result[i] += other.powers[i];
+        }
+        return new LongPolynomial(result);
+    }
+
+    public LongPolynomial subtract(LongPolynomial other) {
+        long[] result = new long[Math.max(this.powers.length, other.powers.length)];
+        for (int i = 0; i < this.powers.length; i++) {
+            result[i] = this.powers[i];
+        }
+        for (int i = 0; i < other.powers.length; i++) {
+            result[i] -= other.powers[i];
+        }
+        return new LongPolynomial(result);
+    }
+
+    public LongPolynomial toPower(int power) {
+        long[] result = new long[this.powers.length + power];
+        System.arraycopy(this.powers, 0, result, power, this.powers.length);
+        return new LongPolynomial(result);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof LongPolynomial)) return false;
+        return Arrays.equals(powers, ((LongPolynomial) o).powers);
+    }
+
+    @Override
+    public int hashCode() {
+        return Arrays.hashCode(powers);
+    }
+
+    @Override
+    public String toString() {
+        return "LongPolynomial{" +
+                "powers=" + Arrays.toString(powers) +
+                '}';
+    }
+}
@@ -1,16 +1,22 @@
 package com.pdp;
 
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
 import java.util.ArrayList;
 import java.util.List;
 import java.util.Random;
-import java.util.concurrent.atomic.AtomicReference;
 
 public class Main {
 
     private static final Random random = new Random();
     private static final int THREAD_COUNT = 12;
 
-    public static void main(String[] args) throws InterruptedException {
+    public static void main(String[] args) throws InterruptedException, IOException {
+        if (ConvolutionKernels.VECTOR.equalsIgnoreCase(System.getProperty("pdp.kernel"))
+                && !ConvolutionKernels.isVectorAvailable()) {
+            System.err.println("Vector kernel not available, using the scalar kernel");
+        }
 
 //      Polynomial p1 = new Polynomial(randomIntList(32768, 40)); Polynomial p2 = new Polynomial(randomIntList(32768, 40));
         Polynomial p1 = new Polynomial(randomIntList(4, 4)); Polynomial p2 = new Polynomial(randomIntList(4, 4));
@@ -34,7 +40,7 @@ public class Main {
         System.out.println("Karatsuba Sequential: " + karatsubaSequential + " time elapsed: " + karatsubaSequentialTime);
 
         long karatsubaParallelTime = System.currentTimeMillis();
-        Polynomial karatsubaParallel = karatsubaParallel(p1, p2, 0);
+        Polynomial karatsubaParallel = karatsubaParallel(p1, p2);
         karatsubaParallelTime = System.currentTimeMillis() - karatsubaParallelTime;
         System.out.println("Karatsuba Parallel:   " + karatsubaParallel + " time elapsed: " + karatsubaParallelTime);
 
@@ -44,66 +50,120 @@ public class Main {
         System.out.println("Karatsuba Sequential time elapsed: " + karatsubaSequentialTime);
         System.out.println("Karatsuba Parallel time elapsed: " + karatsubaParallelTime);
 
-    }
-
-    private static Polynomial karatsubaParallel(Polynomial p, Polynomial q, int depth) throws InterruptedException {
-        if (depth > 4) {
-            return karatsubaSequential(p, q);
-        }
+        // Same algorithms on the primitive long[] representation
+        LongPolynomial lp1 = LongPolynomial.fromPolynomial(p1);
+        LongPolynomial lp2 = LongPolynomial.fromPolynomial(p2);
+
+        long longNormalSequentialTime = System.currentTimeMillis();
+        LongPolynomial longNormalSequential = lp1.multiply(lp2);
+        longNormalSequentialTime = System.currentTimeMillis() - longNormalSequentialTime;
+
+        long longNormalParallelTime = System.currentTimeMillis();
+        LongPolynomial longNormalParallel = lp1.multiplyParallel(lp2, THREAD_COUNT);
+        longNormalParallelTime = System.currentTimeMillis() - longNormalParallelTime;
+
+        long longKaratsubaSequentialTime = System.currentTimeMillis();
+        LongPolynomial longKaratsubaSequential = Karatsuba.sequential(lp1, lp2);
+        longKaratsubaSequentialTime = System.currentTimeMillis() - longKaratsubaSequentialTime;
+
+        long longKaratsubaParallelTime = System.currentTimeMillis();
+        LongPolynomial longKaratsubaParallel = Karatsuba.parallel(lp1, lp2);
+        longKaratsubaParallelTime = System.currentTimeMillis() - longKaratsubaParallelTime;
+
+        long inPlaceKaratsubaTime = System.currentTimeMillis();
+        LongPolynomial inPlaceKaratsuba = new InPlaceKaratsuba().multiply(lp1, lp2);
+        inPlaceKaratsubaTime = System.currentTimeMillis() - inPlaceKaratsubaTime;
+
+        long blockedTime = System.currentTimeMillis();
+        LongPolynomial blocked = BlockedMultiplier.sequential(lp1, lp2);
+        blockedTime = System.currentTimeMillis() - blockedTime;
+
+        long blockedParallelTime = System.currentTimeMillis();
+        LongPolynomial blockedParallel = BlockedMultiplier.parallel(lp1, lp2);
+        blockedParallelTime = System.currentTimeMillis() - blockedParallelTime;
+
+        long toomCookTime = System.currentTimeMillis();
+        LongPolynomial toomCook = ToomCook3.sequential(lp1, lp2);
+        toomCookTime = System.currentTimeMillis() - toomCookTime;
+
+        long toomCookParallelTime = System.currentTimeMillis();
+        LongPolynomial toomCookParallel = ToomCook3.parallel(lp1, lp2);
+        toomCookParallelTime = System.currentTimeMillis() - toomCookParallelTime;
+
+        long nttTime = System.currentTimeMillis();
+        LongPolynomial ntt = NttMultiplier.multiply(lp1, lp2);
+        nttTime = System.currentTimeMillis() - nttTime;
+
+        long nttParallelTime = System.currentTimeMillis();
+        LongPolynomial nttParallel = NttMultiplier.multiplyParallel(lp1, lp2);
+        nttParallelTime = System.currentTimeMillis() - nttParallelTime;
+
+        long autoTime = System.currentTimeMillis();
+        LongPolynomial auto = PolynomialMultiplier.multiply(lp1, lp2);
+        autoTime = System.currentTimeMillis() - autoTime;
+
+        long exactRingTime = System.currentTimeMillis();
+        LongPolynomial exactRing = PolynomialMultiplier.multiply(lp1, lp2, new ExactLongRing());
+        exactRingTime = System.currentTimeMillis() - exactRingTime;
+
+        // Out of core: operands and result only live in memory mapped files
+        Path directory = Files.createTempDirectory("pdp");
+        // mapped files may not be deletable right away (see PolynomialFile#close); whatever is left
+        // is deleted at exit, the directory last
+        directory.toFile().deleteOnExit();
+        Path pFile = directory.resolve("p.poly");
+        Path qFile = directory.resolve("q.poly");
+        Path resultFile = directory.resolve("result.poly");
+        PolynomialFile.write(pFile, lp1);
+        PolynomialFile.write(qFile, lp2);
+        long outOfCoreTime = System.currentTimeMillis();
+        new OutOfCoreMultiplier().multiply(pFile, qFile, resultFile);
+        outOfCoreTime = System.currentTimeMillis() - outOfCoreTime;
+        LongPolynomial outOfCore = PolynomialFile.read(resultFile);
+        deleteBestEffort(pFile);
+        deleteBestEffort(qFile);
+        deleteBestEffort(resultFile);
+        deleteBestEffort(directory);
+
+        System.out.println("Long Normal Sequential time elapsed: " + longNormalSequentialTime
+                + " correct: " + longNormalSequential.equals(LongPolynomial.fromPolynomial(normalSequential)));
+        System.out.println("Long Normal Parallel time elapsed: " + longNormalParallelTime
+                + " correct: " + longNormalParallel.equals(longNormalSequential));
+        System.out.println("Long Karatsuba Sequential time elapsed: " + longKaratsubaSequentialTime
+                + " correct: " + longKaratsubaSequential.equals(longNormalSequential));
+        System.out.println("Long Karatsuba Parallel time elapsed: " + longKaratsubaParallelTime
+                + " correct: " + longKaratsubaParallel.equals(longNormalSequential));
+        System.out.println("In-place Karatsuba time elapsed: " + inPlaceKaratsubaTime
+                + " correct: " + inPlaceKaratsuba.equals(longNormalSequential));
+        System.out.println("Blocked time elapsed: " + blockedTime
+                + " correct: " + blocked.equals(longNormalSequential));
+        System.out.println("Blocked Parallel time elapsed: " + blockedParallelTime
+                + " correct: " + blockedParallel.equals(longNormalSequential));
+        System.out.println("Toom-Cook 3 time elapsed: " + toomCookTime
+                + " correct: " + toomCook.equals(longNormalSequential));
+        System.out.println("Toom-Cook 3 Parallel time elapsed: " + toomCookParallelTime
+                + " correct: " + toomCookParallel.equals(longNormalSequential));
+        System.out.println("NTT time elapsed: " + nttTime
+                + " correct: " + ntt.equals(longNormalSequential));
+        System.out.println("NTT Parallel time elapsed: " + nttParallelTime
+                + " correct: " + nttParallel.equals(longNormalSequential));
+        System.out.println("Auto (" + PolynomialMultiplier.choose(lp1.size(), lp2.size()) + ") time elapsed: " + autoTime
+                + " correct: " + auto.equals(longNormalSequential));
+        System.out.println("Exact ring time elapsed: " + exactRingTime
+                + " correct: " + exactRing.equals(longNormalSequential));
+        System.out.println("Out of core time elapsed: " + outOfCoreTime
+                + " correct: " + outOfCore.equals(longNormalSequential));
 
-        if (p.degree() < 3 || q.degree() < 3) {
-            return p.multiply(q);
-        }
-
-        int split = Math.max(p.degree(), q.degree()) / 2 + 1;
-        Polynomial p1 = new Polynomial(p.powers.subList(0, split));
-        Polynomial p2 = new Polynomial(p.powers.subList(split, p.powers.size()));
-        Polynomial q1 = new Polynomial(q.powers.subList(0, split));
-        Polynomial q2 = new Polynomial(q.powers.subList(split, q.powers.size()));
-
-
-//        Polynomial r1 = karatsubaSequential(p1, q1);
-//        Polynomial r2 = karatsubaSequential(p2, q2);
-//        Polynomial r3 = karatsubaSequential(p1.add(p2),q1.add(q2)).subtract(r1).subtract(r2);
-//
-//        return r1.toPower(2 * split).add(r3.toPower(split)).add(r2);
-
-        AtomicReference<Polynomial> z0 = new AtomicReference<>();
-        AtomicReference<Polynomial> z1 = new AtomicReference<>();
-        AtomicReference<Polynomial> z2 = new AtomicReference<>();
-        Thread thread0 = new Thread(() -> {
-            try {
-                z0.set(karatsubaParallel(p1, q1, depth + 1));
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
-        thread0.start();
-        Thread thread1 = new Thread(() -> {
-            try {
-                z1.set(karatsubaParallel(p1.add(p2), q1.add(q2), depth + 1));
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
-        thread1.start();
-        Thread thread2 = new Thread(() -> {
-            try {
-                z2.set(karatsubaParallel(p2, q2, depth + 1));
-            } catch (InterruptedException e) {
-                e.printStackTrace();
-            }
-        });
-        thread2.start();
-        thread0.join();
-        thread1.join();
-        thread2.join();
-
-        return z2.get().toPower(2 * split).add(z1.get().subtract(z2.get()).subtract(z0.get()).toPower(split)).add(z0.get());
+    }
 
+    /**
+     * Runs on the ForkJoin Karatsuba (see {@link Karatsuba}) through the long[] representation.
+     */
+    static Polynomial karatsubaParallel(Polynomial p, Polynomial q) {
+        return Karatsuba.parallel(LongPolynomial.fromPolynomial(p), LongPolynomial.fromPolynomial(q)).toPolynomial();
     }
 
-    private static Polynomial karatsubaSequential(Polynomial p, Polynomial q) {
+    static Polynomial karatsubaSequential(Polynomial p, Polynomial q) {
         if (p.degree() < 3 || q.degree() < 3) {
             return p.multiply(q);
         }
@@ -128,6 +188,14 @@ public class Main {
         return z2.toPower(2 * split).add(z1.subtract(z2).subtract(z0).toPower(split)).add(z0);
     }
 
+    private static void deleteBestEffort(Path path) {
+        try {
+            Files.deleteIfExists(path);
+        } catch (IOException e) {
+            path.toFile().deleteOnExit();
+        }
+    }
+
     private static Polynomial normalParallel(Polynomial p1, Polynomial p2) throws InterruptedException {
         return p1.multiplyParallel(p2, THREAD_COUNT);
     }
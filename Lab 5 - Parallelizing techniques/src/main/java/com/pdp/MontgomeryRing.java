@@ -0,0 +1,90 @@
+package com.pdp;
+
+import java.util.Arrays;
+
+/**
+ * Integers modulo an odd modulus below 2^31, products reduced with Montgomery reduction (R = 2^32).
+ *
+ * The inputs stay in normal form: the kernel sums REDC(a_i * b_j) = a_i * b_j * R^-1 and converts
+ * every output coefficient back with one more REDC by R^2, so no per-coefficient conversion of the
+ * operands is needed.
+ */
+public final class MontgomeryRing implements CoefficientRing {
+
+    private static final long MAX_MODULUS = 1L << 31;
+    private static final long R_MASK = 0xFFFF_FFFFL;
+
+    private final long modulus;
+    // -modulus^-1 mod 2^32
+    private final long negInverse;
+    // R^2 mod modulus
+    private final long rSquared;
+    private final BarrettRing barrett;
+
+    public MontgomeryRing(long modulus) {
+        if (modulus < 3 || modulus >= MAX_MODULUS || (modulus & 1) == 0) {
+            throw new IllegalArgumentException("Modulus must be odd and in [3, 2^31): " + modulus);
+        }
+        this.modulus = modulus;
+
+        // Newton iteration for modulus^-1 mod 2^32
+        long inverse = modulus;
+        for (int i = 0; i < 5; i++) {
+            inverse = inverse * (2 - modulus * inverse) & R_MASK;
+        }
+        this.negInverse = -inverse & R_MASK;
+
+        long r = (1L << 32) % modulus;
+        this.rSquared = r * r % modulus;
+        this.barrett = new BarrettRing(modulus);
+    }
+
+    public long modulus() {
+        return modulus;
+    }
+
+    @Override
+    public long normalize(long value) {
+        return Math.floorMod(value, modulus);
+    }
+
+    @Override
+    public long add(long a, long b) {
+        long sum = a + b;
+        return sum >= modulus ? sum - modulus : sum;
+    }
+
+    @Override
+    public long subtract(long a, long b) {
+        long difference = a - b;
+        return difference < 0 ? difference + modulus : difference;
+    }
+
+    /**
+     * t * R^-1 mod modulus for 0 <= t < modulus * R.
+     */
+    long redc(long t) {
+        long m = (t & R_MASK) * negInverse & R_MASK;
+        // t + m * modulus < 2^64, so the unsigned shift gives the exact quotient
+        long u = (t + m * modulus) >>> 32;
+        return u >= modulus ? u - modulus : u;
+    }
+
+    /**
+     * Expects a and b already reduced to [0, modulus).
+     */
+    @Override
+    public void multiply(long[] a, long[] b, long[] out) {
+        int resultLen = a.length + b.length - 1;
+        Arrays.fill(out, 0, resultLen, 0);
+        for (int i = 0; i < a.length; i++) {
+            long ai = a[i];
+            for (int j = 0; j < b.length; j++) {
+                out[i + j] += redc(ai * b[j]);
+            }
+        }
+        for (int k = 0; k < resultLen; k++) {
+            out[k] = redc(barrett.reduce(out[k]) * rSquared);
+        }
+    }
+}
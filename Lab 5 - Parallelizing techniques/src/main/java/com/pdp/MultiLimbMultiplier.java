@@ -0,0 +1,149 @@
+package com.pdp;
+
+import java.util.Arrays;
+
+/**
+ * Schoolbook multiplication of {@link MultiLimbPolynomial}s without BigInteger.
+ *
+ * Result coefficients get 2 * limbs + 1 limbs: 2 * limbs hold any single product and the extra
+ * limb absorbs the growth of summing up to 2^31 of them, so the result is always exact.
+ * Operand magnitudes and signs are kept in scratch buffers that are reused between calls, so a
+ * warmed up instance does not allocate apart from the result. Instances are not thread safe.
+ */
+public final class MultiLimbMultiplier {
+
+    private static final long MASK = 0xFFFF_FFFFL;
+
+    private int[] magnitudesA = new int[0];
+    private int[] magnitudesB = new int[0];
+    private boolean[] negativeA = new boolean[0];
+    private boolean[] negativeB = new boolean[0];
+    private int[] product = new int[0];
+
+    public static int resultLimbs(int limbs) {
+        return 2 * limbs + 1;
+    }
+
+    public MultiLimbPolynomial multiply(MultiLimbPolynomial p, MultiLimbPolynomial q) {
+        if (p.limbs != q.limbs) {
+            throw new IllegalArgumentException("Operands have " + p.limbs + " and " + q.limbs + " limbs");
+        }
+        if (p.size() == 0 || q.size() == 0) {
+            return new MultiLimbPolynomial(new int[0], resultLimbs(p.limbs));
+        }
+        int outLimbs = resultLimbs(p.limbs);
+        int[] out = new int[(p.size() + q.size() - 1) * outLimbs];
+        multiply(p.words, q.words, p.limbs, out);
+        return new MultiLimbPolynomial(out, outLimbs);
+    }
+
+    /**
+     * out (resultLimbs(limbs) limbs per coefficient, p.size() + q.size() - 1 coefficients) = a * b.
+     */
+    public void multiply(int[] a, int[] b, int limbs, int[] out) {
+        int n = a.length / limbs;
+        int m = b.length / limbs;
+        int outLimbs = resultLimbs(limbs);
+        ensureCapacity(a.length, b.length, n, m, limbs);
+
+        splitSigns(a, limbs, magnitudesA, negativeA);
+        splitSigns(b, limbs, magnitudesB, negativeB);
+        Arrays.fill(out, 0, (n + m - 1) * outLimbs, 0);
+
+        for (int i = 0; i < n; i++) {
+            for (int j = 0; j < m; j++) {
+                multiplyMagnitudes(magnitudesA, i * limbs, magnitudesB, j * limbs, limbs, product);
+                if (negativeA[i] != negativeB[j]) {
+                    subtract(out, (i + j) * outLimbs, outLimbs, product, 2 * limbs);
+                } else {
+                    add(out, (i + j) * outLimbs, outLimbs, product, 2 * limbs);
+                }
+            }
+        }
+    }
+
+    /**
+     * Copies |x| of every coefficient into magnitudes and records its sign.
+     */
+    private static void splitSigns(int[] words, int limbs, int[] magnitudes, boolean[] negative) {
+        int count = words.length / limbs;
+        for (int c = 0; c < count; c++) {
+            int base = c * limbs;
+            boolean isNegative = words[base + limbs - 1] < 0;
+            negative[c] = isNegative;
+            if (!isNegative) {
+                System.arraycopy(words, base, magnitudes, base, limbs);
+                continue;
+            }
+            // two's complement negation: invert and add one
+            long carry = 1;
+            for (int l = 0; l < limbs; l++) {
+                long t = (~words[base + l] & MASK) + carry;
+                magnitudes[base + l] = (int) t;
+                carry = t >>> 32;
+            }
+        }
+    }
+
+    /**
+     * product[0 .. 2 * limbs) = x[xOff ..] * y[yOff ..], both unsigned with limbs limbs.
+     */
+    private static void multiplyMagnitudes(int[] x, int xOff, int[] y, int yOff, int limbs, int[] product) {
+        Arrays.fill(product, 0, 2 * limbs, 0);
+        for (int u = 0; u < limbs; u++) {
+            long xu = x[xOff + u] & MASK;
+            if (xu == 0) {
+                continue;
+            }
+            long carry = 0;
+            for (int v = 0; v < limbs; v++) {
+                long t = xu * (y[yOff + v] & MASK) + (product[u + v] & MASK) + carry;
+                product[u + v] = (int) t;
+                carry = t >>> 32;
+            }
+            product[u + limbs] = (int) carry;
+        }
+    }
+
+    private static void add(int[] out, int outOff, int outLimbs, int[] value, int valueLimbs) {
+        long carry = 0;
+        for (int l = 0; l < outLimbs; l++) {
+            long t = (out[outOff + l] & MASK) + (l < valueLimbs ? value[l] & MASK : 0) + carry;
+            out[outOff + l] = (int) t;
+            carry = t >>> 32;
+            if (carry == 0 && l >= valueLimbs) {
+                return;
+            }
+        }
+    }
+
+    private static void subtract(int[] out, int outOff, int outLimbs, int[] value, int valueLimbs) {
+        long borrow = 0;
+        for (int l = 0; l < outLimbs; l++) {
+            long t = (out[outOff + l] & MASK) - (l < valueLimbs ? value[l] & MASK : 0) - borrow;
+            out[outOff + l] = (int) t;
+            borrow = t < 0 ? 1 : 0;
+            if (borrow == 0 && l >= valueLimbs) {
+                return;
+            }
+        }
+    }
+
+    private void ensureCapacity(int aWords, int bWords, int n, int m, int limbs) {
+        if (magnitudesA.length < aWords) {
+            magnitudesA = new int[aWords];
+        }
+        if (magnitudesB.length < bWords) {
+            magnitudesB = new int[bWords];
+        }
+        if (negativeA.length < n) {
+            negativeA = new boolean[n];
+        }
+        if (negativeB.length < m) {
+            negativeB = new boolean[m];
+        }
+        if (product.length < 2 * limbs) {
+            product = new int[2 * limbs];
+        }
+    }
+}
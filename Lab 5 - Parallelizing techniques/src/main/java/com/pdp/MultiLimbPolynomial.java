@@ -0,0 +1,88 @@
+package com.pdp;
+
+import java.math.BigInteger;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Polynomial whose coefficients are fixed-width signed integers of {@code limbs} 32-bit limbs
+ * (little endian, two's complement), packed in one int[]: coefficient i is
+ * words[i * limbs .. (i + 1) * limbs).
+ *
+ * BigInteger is only used to convert to and from this layout, never in the multiplication kernel.
+ */
+public class MultiLimbPolynomial {
+    public final int[] words;
+    public final int limbs;
+
+    public MultiLimbPolynomial(int[] words, int limbs) {
+        if (limbs <= 0 || words.length % limbs != 0) {
+            throw new IllegalArgumentException("Words length " + words.length + " is not a multiple of " + limbs);
+        }
+        this.words = words;
+        this.limbs = limbs;
+    }
+
+    public int size() {
+        return words.length / limbs;
+    }
+
+    public static MultiLimbPolynomial fromLongPolynomial(LongPolynomial polynomial, int limbs) {
+        if (limbs < 2) {
+            throw new IllegalArgumentException("A long needs at least 2 limbs");
+        }
+        int[] words = new int[polynomial.size() * limbs];
+        for (int i = 0; i < polynomial.size(); i++) {
+            long value = polynomial.powers[i];
+            int base = i * limbs;
+            words[base] = (int) value;
+            words[base + 1] = (int) (value >> 32);
+            int sign = value < 0 ? -1 : 0;
+            for (int l = 2; l < limbs; l++) {
+                words[base + l] = sign;
+            }
+        }
+        return new MultiLimbPolynomial(words, limbs);
+    }
+
+    public static MultiLimbPolynomial fromBigIntegers(List<BigInteger> coefficients, int limbs) {
+        int[] words = new int[coefficients.size() * limbs];
+        for (int i = 0; i < coefficients.size(); i++) {
+            BigInteger value = coefficients.get(i);
+            if (value.bitLength() >= 32 * limbs) {
+                throw new ArithmeticException("Coefficient " + i + " does not fit in " + limbs + " limbs");
+            }
+            for (int l = 0; l < limbs; l++) {
+                words[i * limbs + l] = value.shiftRight(32 * l).intValue();
+            }
+        }
+        return new MultiLimbPolynomial(words, limbs);
+    }
+
+    public BigInteger coefficient(int index) {
+        BigInteger value = BigInteger.ZERO;
+        int base = index * limbs;
+        for (int l = limbs - 1; l >= 0; l--) {
+            value = value.shiftLeft(32).or(BigInteger.valueOf(words[base + l] & 0xFFFF_FFFFL));
+        }
+        if (words[base + limbs - 1] < 0) {
+            value = value.subtract(BigInteger.ONE.shiftLeft(32 * limbs));
+        }
+        return value;
+    }
+
+    public List<BigInteger> toBigIntegers() {
+        List<BigInteger> coefficients = new ArrayList<>(size());
+        for (int i = 0; i < size(); i++) {
+            coefficients.add(coefficient(i));
+        }
+        return coefficients;
+    }
+
+    @Override
+    public String toString() {
+        return "MultiLimbPolynomial{" +
+                "powers=" + toBigIntegers() +
+                '}';
+    }
+}
@@ -0,0 +1,225 @@
+package com.pdp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+
+/**
+ * Exact polynomial multiplication with the Number Theoretic Transform.
+ *
+ * The product is computed modulo three NTT friendly primes and rebuilt with CRT (Garner), so every
+ * result coefficient that fits in a long comes out exact, negative ones included.
+ * Supports results of up to 2^23 coefficients.
+ */
+public final class NttMultiplier {
+
+    private static final long[] PRIMES = {998_244_353L, 167_772_161L, 469_762_049L};
+    private static final long ROOT = 3;
+    private static final int MAX_LOG = 23;
+
+    // Garner constants
+    private static final long M0_INV_MOD_M1 = modPow(PRIMES[0] % PRIMES[1], PRIMES[1] - 2, PRIMES[1]);
+    private static final long M0M1_MOD_M2 = PRIMES[0] % PRIMES[2] * (PRIMES[1] % PRIMES[2]) % PRIMES[2];
+    private static final long M0M1_INV_MOD_M2 = modPow(M0M1_MOD_M2, PRIMES[2] - 2, PRIMES[2]);
+
+    // a stage of butterflies is split into tasks of at least this many butterflies
+    private static final int PARALLEL_GRAIN = 1 << 13;
+
+    private NttMultiplier() {}
+
+    public static LongPolynomial multiply(LongPolynomial p, LongPolynomial q) {
+        return multiply(p, q, null);
+    }
+
+    public static LongPolynomial multiplyParallel(LongPolynomial p, LongPolynomial q) {
+        return multiply(p, q, ForkJoinPool.commonPool());
+    }
+
+    /**
+     * With a null pool everything runs on the calling thread. Otherwise the three residue products
+     * run concurrently and every butterfly stage is split across the pool.
+     */
+    public static LongPolynomial multiply(LongPolynomial p, LongPolynomial q, ForkJoinPool pool) {
+        if (p.size() == 0 || q.size() == 0) {
+            return new LongPolynomial(new long[0]);
+        }
+        int resultLen = p.size() + q.size() - 1;
+        int log = 32 - Integer.numberOfLeadingZeros(Math.max(1, resultLen - 1));
+        if (log > MAX_LOG) {
+            throw new IllegalArgumentException("NTT result too long: " + resultLen + " coefficients");
+        }
+        int n = 1 << log;
+
+        long[][] residues = new long[PRIMES.length][];
+        if (pool == null) {
+            for (int k = 0; k < PRIMES.length; k++) {
+                residues[k] = multiplyModPrime(p.powers, q.powers, n, PRIMES[k], null);
+            }
+        } else {
+            pool.invoke(new RecursiveAction() {
+                @Override
+                protected void compute() {
+                    RecursiveAction[] tasks = new RecursiveAction[PRIMES.length];
+                    for (int k = 0; k < PRIMES.length; k++) {
+                        int prime = k;
+                        tasks[k] = new RecursiveAction() {
+                            @Override
+                            protected void compute() {
+                                residues[prime] = multiplyModPrime(p.powers, q.powers, n, PRIMES[prime], pool);
+                            }
+                        };
+                    }
+                    invokeAll(tasks);
+                }
+            });
+        }
+
+        long[] result = new long[resultLen];
+        for (int i = 0; i < resultLen; i++) {
+            result[i] = garner(residues[0][i], residues[1][i], residues[2][i]);
+        }
+        return new LongPolynomial(result);
+    }
+
+    private static long[] multiplyModPrime(long[] a, long[] b, int n, long mod, ForkJoinPool pool) {
+        long[] fa = new long[n];
+        long[] fb = new long[n];
+        for (int i = 0; i < a.length; i++) {
+            fa[i] = Math.floorMod(a[i], mod);
+        }
+        for (int i = 0; i < b.length; i++) {
+            fb[i] = Math.floorMod(b[i], mod);
+        }
+
+        transform(fa, mod, false, pool);
+        transform(fb, mod, false, pool);
+        for (int i = 0; i < n; i++) {
+            fa[i] = fa[i] * fb[i] % mod;
+        }
+        transform(fa, mod, true, pool);
+        return fa;
+    }
+
+    /**
+     * Iterative in-place NTT (bit reversal followed by log n butterfly stages).
+     */
+    static void transform(long[] a, long mod, boolean invert, ForkJoinPool pool) {
+        int n = a.length;
+        for (int i = 1, j = 0; i < n; i++) {
+            int bit = n >> 1;
+            for (; (j & bit) != 0; bit >>= 1) {
+                j ^= bit;
+            }
+            j ^= bit;
+            if (i < j) {
+                long tmp = a[i];
+                a[i] = a[j];
+                a[j] = tmp;
+            }
+        }
+
+        long[] roots = new long[n / 2];
+        for (int len = 2; len <= n; len <<= 1) {
+            int half = len >> 1;
+            long w = modPow(ROOT, (mod - 1) / len, mod);
+            if (invert) {
+                w = modPow(w, mod - 2, mod);
+            }
+            roots[0] = 1;
+            for (int j = 1; j < half; j++) {
+                roots[j] = roots[j - 1] * w % mod;
+            }
+
+            int butterflies = n >> 1;
+            if (pool == null || butterflies < 2 * PARALLEL_GRAIN) {
+                butterflies(a, roots, half, mod, 0, butterflies);
+            } else {
+                pool.invoke(new Stage(a, roots, half, mod, 0, butterflies));
+            }
+        }
+
+        if (invert) {
+            long nInv = modPow(n, mod - 2, mod);
+            for (int i = 0; i < n; i++) {
+                a[i] = a[i] * nInv % mod;
+            }
+        }
+    }
+
+    /**
+     * Butterflies number from..to of a stage; butterfly b pairs (block start + j, block start + j + half).
+     */
+    private static void butterflies(long[] a, long[] roots, int half, long mod, int from, int to) {
+        for (int b = from; b < to; b++) {
+            int j = b % half;
+            int u = (b / half) * (half << 1) + j;
+            int v = u + half;
+            long x = a[u];
+            long y = a[v] * roots[j] % mod;
+            long sum = x + y;
+            a[u] = sum >= mod ? sum - mod : sum;
+            long diff = x - y;
+            a[v] = diff < 0 ? diff + mod : diff;
+        }
+    }
+
+    private static final class Stage extends RecursiveAction {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] a;
+        private final long[] roots;
+        private final int half;
+        private final long mod;
+        private final int from;
+        private final int to;
+
+        Stage(long[] a, long[] roots, int half, long mod, int from, int to) {
+            this.a = a;
+            this.roots = roots;
+            this.half = half;
+            this.mod = mod;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= PARALLEL_GRAIN) {
+                butterflies(a, roots, half, mod, from, to);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new Stage(a, roots, half, mod, from, mid), new Stage(a, roots, half, mod, mid, to));
+        }
+    }
+
+    /**
+     * CRT reconstruction of the signed value with residues r0, r1, r2. Values above M/2 are taken as
+     * negative; the final sum is evaluated mod 2^64, which is exact whenever the value fits in a long.
+     */
+    private static long garner(long r0, long r1, long r2) {
+        long m0 = PRIMES[0];
+        long m1 = PRIMES[1];
+        long m2 = PRIMES[2];
+
+        long t1 = Math.floorMod(r1 - r0, m1) * M0_INV_MOD_M1 % m1;
+        long partial = (r0 % m2 + m0 % m2 * t1) % m2;
+        long t2 = Math.floorMod(r2 - partial, m2) * M0M1_INV_MOD_M2 % m2;
+        if (t2 > m2 / 2) {
+            t2 -= m2;
+        }
+        return r0 + m0 * t1 + m0 * m1 * t2;
+    }
+
+    private static long modPow(long base, long exp, long mod) {
+        long result = 1;
+        base %= mod;
+        while (exp > 0) {
+            if ((exp & 1) == 1) {
+                result = result * base % mod;
+            }
+            base = base * base % mod;
+            exp >>= 1;
+        }
+        return result;
+    }
+}
@@ -0,0 +1,109 @@
+package com.pdp;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.Arrays;
+
+/**
+ * Multiplies two {@link PolynomialFile}s into a third one while only keeping a few blocks on the heap.
+ *
+ * The operands are cut into blocks of B coefficients. The product of block I of p and block J of q
+ * lands in output blocks I + J and I + J + 1, so the output is produced one block W at a time: all
+ * pairs with I + J = W are multiplied with the in-place Karatsuba, their low halves go into block W
+ * and their high halves are carried into block W + 1. Each output block is written exactly once.
+ * The block size can be set with -Dpdp.outofcore.block=N. Instances are not thread safe.
+ */
+public final class OutOfCoreMultiplier {
+
+    private static final int DEFAULT_BLOCK_SIZE = Integer.getInteger("pdp.outofcore.block", 1 << 16);
+
+    private final int blockSize;
+
+    // sized for the block actually used, which is smaller than blockSize for small operands
+    private int block;
+    private long[] blockA = new long[0];
+    private long[] blockB = new long[0];
+    private long[] product = new long[0];
+    private long[] window = new long[0];
+    private long[] carry = new long[0];
+
+    public OutOfCoreMultiplier() {
+        this(DEFAULT_BLOCK_SIZE);
+    }
+
+    public OutOfCoreMultiplier(int blockSize) {
+        if (blockSize < 1) {
+            throw new IllegalArgumentException("Block size must be positive: " + blockSize);
+        }
+        this.blockSize = blockSize;
+    }
+
+    public void multiply(Path p, Path q, Path result) throws IOException {
+        try (PolynomialFile a = PolynomialFile.open(p);
+             PolynomialFile b = PolynomialFile.open(q)) {
+            long resultSize = a.size() == 0 || b.size() == 0 ? 0 : a.size() + b.size() - 1;
+            try (PolynomialFile out = PolynomialFile.create(result, resultSize)) {
+                multiply(a, b, out);
+            }
+        }
+    }
+
+    /**
+     * out must hold a.size() + b.size() - 1 coefficients (or none if either operand is empty).
+     */
+    public void multiply(PolynomialFile a, PolynomialFile b, PolynomialFile out) throws IOException {
+        if (a.size() == 0 || b.size() == 0) {
+            return;
+        }
+        useBlock((int) Math.min(blockSize, Math.max(a.size(), b.size())));
+        long blocksA = blockCount(a.size());
+        long blocksB = blockCount(b.size());
+        InPlaceKaratsuba karatsuba = InPlaceKaratsuba.local();
+
+        // the last window only receives the carry of the last block pair
+        for (long w = 0; w < blocksA + blocksB && w * block < out.size(); w++) {
+            System.arraycopy(carry, 0, window, 0, block);
+            Arrays.fill(carry, 0);
+
+            for (long i = Math.max(0, w - (blocksB - 1)); i <= Math.min(blocksA - 1, w); i++) {
+                readBlock(a, i, blockA);
+                readBlock(b, w - i, blockB);
+                karatsuba.multiply(blockA, blockB, product);
+                for (int k = 0; k < block; k++) {
+                    window[k] += product[k];
+                }
+                for (int k = block; k < product.length; k++) {
+                    carry[k - block] += product[k];
+                }
+            }
+
+            long start = w * block;
+            int len = (int) Math.min(block, out.size() - start);
+            out.write(start, window, 0, len);
+        }
+    }
+
+    private void useBlock(int size) {
+        if (block != size) {
+            block = size;
+            blockA = new long[size];
+            blockB = new long[size];
+            product = new long[2 * size - 1];
+            window = new long[size];
+            carry = new long[size];
+        }
+        Arrays.fill(carry, 0);
+    }
+
+    private long blockCount(long size) {
+        return (size + block - 1) / block;
+    }
+
+    // the last block is zero padded so every product has the same shape
+    private void readBlock(PolynomialFile file, long index, long[] dst) throws IOException {
+        long start = index * block;
+        int len = (int) Math.min(block, file.size() - start);
+        file.read(start, dst, 0, len);
+        Arrays.fill(dst, len, block, 0);
+    }
+}
@@ -0,0 +1,170 @@
+package com.pdp;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.LongBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Polynomial stored on disk, accessed through memory mapped windows so it never has to fit on the heap.
+ *
+ * Format (little endian): int magic "PDPP", int version, long coefficient count, then one long per
+ * coefficient starting with the free term. The coefficients are mapped in segments of at most
+ * 1 GiB, each mapped once and kept for the lifetime of the file.
+ */
+public final class PolynomialFile implements Closeable {
+
+    private static final int MAGIC = 0x50504450; // "PDPP" read little endian
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 16;
+    private static final int SEGMENT_COEFFICIENTS = 1 << 27;
+
+    private final FileChannel channel;
+    private final FileChannel.MapMode mode;
+    private final long size;
+    private final LongBuffer[] segments;
+
+    private PolynomialFile(FileChannel channel, FileChannel.MapMode mode, long size) {
+        this.channel = channel;
+        this.mode = mode;
+        this.size = size;
+        this.segments = new LongBuffer[(int) ((size + SEGMENT_COEFFICIENTS - 1) / SEGMENT_COEFFICIENTS)];
+    }
+
+    /**
+     * Creates (or truncates) a file for size coefficients, all zero.
+     */
+    public static PolynomialFile create(Path path, long size) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.CREATE, StandardOpenOption.TRUNCATE_EXISTING,
+                StandardOpenOption.READ, StandardOpenOption.WRITE);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        header.putInt(MAGIC).putInt(VERSION).putLong(size).flip();
+        while (header.hasRemaining()) {
+            channel.write(header, header.position());
+        }
+        if (size > 0) {
+            // extend the file so the whole coefficient range can be mapped
+            channel.write(ByteBuffer.allocate(1), HEADER_BYTES + size * Long.BYTES - 1);
+        }
+        return new PolynomialFile(channel, FileChannel.MapMode.READ_WRITE, size);
+    }
+
+    /**
+     * Opens an existing file read only.
+     */
+    public static PolynomialFile open(Path path) throws IOException {
+        FileChannel channel = FileChannel.open(path, StandardOpenOption.READ);
+        ByteBuffer header = ByteBuffer.allocate(HEADER_BYTES).order(ByteOrder.LITTLE_ENDIAN);
+        while (header.hasRemaining()) {
+            if (channel.read(header, header.position()) < 0) {
+                break;
+            }
+        }
+        header.flip();
+        if (header.remaining() < HEADER_BYTES || header.getInt() != MAGIC) {
+            channel.close();
+            throw new IOException("Not a polynomial file: " + path);
+        }
+        int version = header.getInt();
+        if (version != VERSION) {
+            channel.close();
+            throw new IOException("Unsupported polynomial file version " + version + ": " + path);
+        }
+        long size = header.getLong();
+        if (channel.size() < HEADER_BYTES + size * Long.BYTES) {
+            channel.close();
+            throw new IOException("Truncated polynomial file: " + path);
+        }
+        return new PolynomialFile(channel, FileChannel.MapMode.READ_ONLY, size);
+    }
+
+    public static void write(Path path, LongPolynomial polynomial) throws IOException {
+        try (PolynomialFile file = create(path, polynomial.size())) {
+            file.write(0, polynomial.powers, 0, polynomial.size());
+        }
+    }
+
+    public static LongPolynomial read(Path path) throws IOException {
+        try (PolynomialFile file = open(path)) {
+            long[] powers = new long[Math.toIntExact(file.size())];
+            file.read(0, powers, 0, powers.length);
+            return new LongPolynomial(powers);
+        }
+    }
+
+    public long size() {
+        return size;
+    }
+
+    /**
+     * Copies coefficients [from, from + len) into dst[off ..].
+     */
+    public void read(long from, long[] dst, int off, int len) throws IOException {
+        checkRange(from, len);
+        while (len > 0) {
+            int segment = (int) (from / SEGMENT_COEFFICIENTS);
+            int index = (int) (from % SEGMENT_COEFFICIENTS);
+            LongBuffer view = segment(segment).duplicate();
+            int count = Math.min(len, view.limit() - index);
+            view.position(index);
+            view.get(dst, off, count);
+            from += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    /**
+     * Copies src[off .. off + len) into coefficients [from, from + len).
+     */
+    public void write(long from, long[] src, int off, int len) throws IOException {
+        if (mode != FileChannel.MapMode.READ_WRITE) {
+            throw new IOException("Polynomial file is open read only");
+        }
+        checkRange(from, len);
+        while (len > 0) {
+            int segment = (int) (from / SEGMENT_COEFFICIENTS);
+            int index = (int) (from % SEGMENT_COEFFICIENTS);
+            LongBuffer view = segment(segment).duplicate();
+            int count = Math.min(len, view.limit() - index);
+            view.position(index);
+            view.put(src, off, count);
+            from += count;
+            off += count;
+            len -= count;
+        }
+    }
+
+    private void checkRange(long from, int len) {
+        if (from < 0 || len < 0 || from + len > size) {
+            throw new IndexOutOfBoundsException("Range [" + from + ", " + (from + len) + ") of " + size);
+        }
+    }
+
+    private LongBuffer segment(int segment) throws IOException {
+        if (segments[segment] == null) {
+            long first = (long) segment * SEGMENT_COEFFICIENTS;
+            long count = Math.min(SEGMENT_COEFFICIENTS, size - first);
+            MappedByteBuffer mapped = channel.map(mode, HEADER_BYTES + first * Long.BYTES, count * Long.BYTES);
+            segments[segment] = mapped.order(ByteOrder.LITTLE_ENDIAN).asLongBuffer();
+        }
+        return segments[segment];
+    }
+
+    /**
+     * Closes the channel. The mapped segments are only unmapped once they are garbage collected,
+     * and until then Windows refuses to delete the file, so callers should treat deleting it right
+     * after close as best effort.
+     */
+    @Override
+    public void close() throws IOException {
+        Arrays.fill(segments, null);
+        channel.close();
+    }
+}
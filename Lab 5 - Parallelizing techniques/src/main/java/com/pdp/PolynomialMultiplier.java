@@ -0,0 +1,141 @@
+package com.pdp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.function.BinaryOperator;
+import java.util.function.LongBinaryOperator;
+
+/**
+ * Single entry point that picks the multiplication algorithm by operand size:
+ * schoolbook for small inputs, then Karatsuba, Toom-Cook 3 and NTT for the largest ones.
+ *
+ * The Karatsuba cutoff is {@link Karatsuba#threshold()}, the Toom-3 one is {@link ToomCook3#threshold()};
+ * the NTT cutoff can be set with -Dpdp.ntt.threshold=N (smaller operand size, in coefficients).
+ * Karatsuba and Toom-3 pad both operands to the longer one, so when one operand is at least twice as long as
+ * the other it is cut into blocks of the shorter size and the block products are added up.
+ *
+ * {@link #multiply(LongPolynomial, LongPolynomial, CoefficientRing)} does every coefficient operation
+ * in a {@link CoefficientRing} (overflow checked or modular) and only picks between schoolbook and
+ * Karatsuba: Toom-3 divides by 2 and 3 and the NTT reconstructs integers of bounded size.
+ */
+public final class PolynomialMultiplier {
+
+    public enum Algorithm {
+        SCHOOLBOOK,
+        KARATSUBA,
+        TOOM3,
+        NTT
+    }
+
+    private static final int NTT_THRESHOLD = Integer.getInteger("pdp.ntt.threshold", 8192);
+
+    private PolynomialMultiplier() {}
+
+    public static Algorithm choose(int pSize, int qSize) {
+        int smaller = Math.min(pSize, qSize);
+        if (smaller <= Karatsuba.threshold()) {
+            return Algorithm.SCHOOLBOOK;
+        }
+        if (smaller <= ToomCook3.threshold()) {
+            return Algorithm.KARATSUBA;
+        }
+        if (smaller < NTT_THRESHOLD) {
+            return Algorithm.TOOM3;
+        }
+        return Algorithm.NTT;
+    }
+
+    public static LongPolynomial multiply(LongPolynomial p, LongPolynomial q) {
+        switch (choose(p.size(), q.size())) {
+            case SCHOOLBOOK:
+                return p.multiply(q);
+            case KARATSUBA:
+                if (unbalanced(p, q)) {
+                    return byBlocks(p, q, PolynomialMultiplier::multiply);
+                }
+                return InPlaceKaratsuba.local().multiply(p, q);
+            case TOOM3:
+                if (unbalanced(p, q)) {
+                    return byBlocks(p, q, PolynomialMultiplier::multiply);
+                }
+                return ToomCook3.sequential(p, q);
+            default:
+                return NttMultiplier.multiply(p, q);
+        }
+    }
+
+    public static LongPolynomial multiplyParallel(LongPolynomial p, LongPolynomial q) {
+        return multiplyParallel(p, q, ForkJoinPool.commonPool());
+    }
+
+    public static LongPolynomial multiplyParallel(LongPolynomial p, LongPolynomial q, ForkJoinPool pool) {
+        switch (choose(p.size(), q.size())) {
+            case SCHOOLBOOK:
+                return p.multiply(q);
+            case KARATSUBA:
+                if (unbalanced(p, q)) {
+                    return byBlocks(p, q, (a, b) -> multiplyParallel(a, b, pool));
+                }
+                return Karatsuba.parallel(p, q, pool);
+            case TOOM3:
+                if (unbalanced(p, q)) {
+                    return byBlocks(p, q, (a, b) -> multiplyParallel(a, b, pool));
+                }
+                return ToomCook3.parallel(p, q, pool);
+            default:
+                return NttMultiplier.multiply(p, q, pool);
+        }
+    }
+
+    /**
+     * p * q with coefficients in ring; the result is normalized.
+     */
+    public static LongPolynomial multiply(LongPolynomial p, LongPolynomial q, CoefficientRing ring) {
+        return multiplyNormalized(ring.normalize(p), ring.normalize(q), ring);
+    }
+
+    private static LongPolynomial multiplyNormalized(LongPolynomial p, LongPolynomial q, CoefficientRing ring) {
+        if (choose(p.size(), q.size()) == Algorithm.SCHOOLBOOK) {
+            return ring.multiply(p, q);
+        }
+        if (unbalanced(p, q)) {
+            return byBlocks(p, q, (a, b) -> multiplyNormalized(a, b, ring), ring::add);
+        }
+        return Karatsuba.sequential(p, q, ring);
+    }
+
+    private static boolean unbalanced(LongPolynomial p, LongPolynomial q) {
+        return Math.max(p.size(), q.size()) >= 2 * Math.min(p.size(), q.size());
+    }
+
+    /**
+     * Multiplies blocks of the longer operand, each as long as the shorter one, by the shorter
+     * operand and adds them up at their offsets. Every block goes back through the dispatcher, so
+     * a short last block picks its own algorithm.
+     */
+    private static LongPolynomial byBlocks(LongPolynomial p, LongPolynomial q, BinaryOperator<LongPolynomial> multiply) {
+        return byBlocks(p, q, multiply, Long::sum);
+    }
+
+    private static LongPolynomial byBlocks(LongPolynomial p, LongPolynomial q, BinaryOperator<LongPolynomial> multiply,
+                                           LongBinaryOperator add) {
+        LongPolynomial longer = p.size() >= q.size() ? p : q;
+        LongPolynomial shorter = longer == p ? q : p;
+        int block = shorter.size();
+        long[] out = new long[p.size() + q.size() - 1];
+        for (int from = 0; from < longer.size(); from += block) {
+            LongPolynomial part = multiply.apply(longer.slice(from, Math.min(longer.size(), from + block)), shorter);
+            for (int i = 0; i < part.size(); i++) {
+                out[from + i] = add.applyAsLong(out[from + i], part.powers[i]);
+            }
+        }
+        return new LongPolynomial(out);
+    }
+
+    public static Polynomial multiply(Polynomial p, Polynomial q) {
+        return multiply(LongPolynomial.fromPolynomial(p), LongPolynomial.fromPolynomial(q)).toPolynomial();
+    }
+
+    public static Polynomial multiplyParallel(Polynomial p, Polynomial q) {
+        return multiplyParallel(LongPolynomial.fromPolynomial(p), LongPolynomial.fromPolynomial(q)).toPolynomial();
+    }
+}
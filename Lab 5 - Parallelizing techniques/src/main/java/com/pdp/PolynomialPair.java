@@ -0,0 +1,25 @@
+package com.pdp;
+
+/**
+ * One independent multiplication of a batch (see {@link BatchMultiplier}).
+ */
+public class PolynomialPair {
+    public final LongPolynomial p;
+    public final LongPolynomial q;
+
+    public PolynomialPair(LongPolynomial p, LongPolynomial q) {
+        this.p = p;
+        this.q = q;
+    }
+
+    public static PolynomialPair of(Polynomial p, Polynomial q) {
+        return new PolynomialPair(LongPolynomial.fromPolynomial(p), LongPolynomial.fromPolynomial(q));
+    }
+
+    /**
+     * Rough cost in multiply-accumulates, used to group small pairs into one task.
+     */
+    long work() {
+        return (long) p.size() * q.size();
+    }
+}
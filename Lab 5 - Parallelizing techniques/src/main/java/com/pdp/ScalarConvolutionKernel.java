@@ -0,0 +1,15 @@
+package com.pdp;
+
+public final class ScalarConvolutionKernel implements ConvolutionKernel {
+
+    @Override
+    public void multiplyAccumulate(long[] a, int aOff, int aLen, long[] b, int bOff, int bLen, long[] out, int outOff) {
+        for (int i = 0; i < aLen; i++) {
+            long ai = a[aOff + i];
+            int base = outOff + i;
+            for (int j = 0; j < bLen; j++) {
+                out[base + j] += ai * b[bOff + j];
+            }
+        }
+    }
+}
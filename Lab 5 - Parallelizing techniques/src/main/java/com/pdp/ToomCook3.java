@@ -0,0 +1,187 @@
+package com.pdp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Toom-Cook 3-way multiplication on LongPolynomial.
+ *
+ * Both operands are split into three parts of k coefficients, evaluated at 0, 1, -1, -2 and infinity,
+ * multiplied pointwise (five sub-products instead of nine) and interpolated back (Bodrato's sequence,
+ * all divisions are exact). Below the threshold the sub-products go to the in-place Karatsuba.
+ * The threshold can be set with -Dpdp.toom3.threshold=N.
+ */
+public final class ToomCook3 {
+
+    private static final int THRESHOLD = Integer.getInteger("pdp.toom3.threshold", 2048);
+
+    private ToomCook3() {}
+
+    public static int threshold() {
+        return THRESHOLD;
+    }
+
+    public static LongPolynomial sequential(LongPolynomial p, LongPolynomial q) {
+        return new LongPolynomial(sequential(p.powers, q.powers));
+    }
+
+    public static LongPolynomial parallel(LongPolynomial p, LongPolynomial q) {
+        return parallel(p, q, ForkJoinPool.commonPool());
+    }
+
+    public static LongPolynomial parallel(LongPolynomial p, LongPolynomial q, ForkJoinPool pool) {
+        return new LongPolynomial(pool.invoke(new Task(p.powers, q.powers)));
+    }
+
+    private static long[] sequential(long[] a, long[] b) {
+        if (Math.min(a.length, b.length) <= THRESHOLD) {
+            return base(a, b);
+        }
+        Split s = new Split(a, b);
+        return s.interpolate(
+                sequential(s.a0, s.b0),
+                sequential(s.a1v, s.b1v),
+                sequential(s.am1, s.bm1),
+                sequential(s.am2, s.bm2),
+                sequential(s.a2, s.b2));
+    }
+
+    private static long[] base(long[] a, long[] b) {
+        if (a.length == 0 || b.length == 0) {
+            return new long[0];
+        }
+        long[] out = new long[a.length + b.length - 1];
+        InPlaceKaratsuba.local().multiply(a, b, out);
+        return out;
+    }
+
+    /**
+     * The three parts of each operand and their values at 1, -1 and -2, all of length k.
+     */
+    private static final class Split {
+        final int k;
+        final int resultLen;
+        final long[] a0, a2, a1v, am1, am2;
+        final long[] b0, b2, b1v, bm1, bm2;
+
+        Split(long[] a, long[] b) {
+            k = (Math.max(a.length, b.length) + 2) / 3;
+            resultLen = a.length + b.length - 1;
+
+            long[][] ea = evaluate(a, k);
+            a0 = ea[0];
+            a1v = ea[1];
+            am1 = ea[2];
+            am2 = ea[3];
+            a2 = ea[4];
+
+            long[][] eb = evaluate(b, k);
+            b0 = eb[0];
+            b1v = eb[1];
+            bm1 = eb[2];
+            bm2 = eb[3];
+            b2 = eb[4];
+        }
+
+        /**
+         * Returns {P(0), P(1), P(-1), P(-2), P(inf)} where P(x) = x0 + x1 t + x2 t^2.
+         */
+        private static long[][] evaluate(long[] x, int k) {
+            long[] x0 = part(x, 0, k);
+            long[] x1 = part(x, k, k);
+            long[] x2 = part(x, 2 * k, k);
+            long[] at1 = new long[k];
+            long[] atMinus1 = new long[k];
+            long[] atMinus2 = new long[k];
+            for (int i = 0; i < k; i++) {
+                long p0 = x0[i] + x2[i];
+                at1[i] = p0 + x1[i];
+                atMinus1[i] = p0 - x1[i];
+                atMinus2[i] = ((atMinus1[i] + x2[i]) << 1) - x0[i];
+            }
+            return new long[][]{x0, at1, atMinus1, atMinus2, x2};
+        }
+
+        private static long[] part(long[] x, int from, int k) {
+            long[] part = new long[k];
+            if (from < x.length) {
+                System.arraycopy(x, from, part, 0, Math.min(k, x.length - from));
+            }
+            return part;
+        }
+
+        long[] interpolate(long[] r0, long[] r1, long[] rm1, long[] rm2, long[] rInf) {
+            int len = 2 * k - 1;
+            long[] c1 = new long[len];
+            long[] c2 = new long[len];
+            long[] c3 = new long[len];
+            for (int i = 0; i < len; i++) {
+                long v0 = at(r0, i);
+                long v1 = at(r1, i);
+                long vm1 = at(rm1, i);
+                long vm2 = at(rm2, i);
+                long vInf = at(rInf, i);
+
+                long t3 = (vm2 - v1) / 3;
+                long t1 = (v1 - vm1) >> 1;
+                long t2 = vm1 - v0;
+                t3 = ((t2 - t3) >> 1) + (vInf << 1);
+                t2 = t2 + t1 - vInf;
+                t1 = t1 - t3;
+
+                c1[i] = t1;
+                c2[i] = t2;
+                c3[i] = t3;
+            }
+
+            long[] result = new long[resultLen];
+            addShifted(result, r0, 0);
+            addShifted(result, c1, k);
+            addShifted(result, c2, 2 * k);
+            addShifted(result, c3, 3 * k);
+            addShifted(result, rInf, 4 * k);
+            return result;
+        }
+
+        private static long at(long[] x, int i) {
+            return i < x.length ? x[i] : 0;
+        }
+
+        // coefficients past the real product length are zero, so they are dropped
+        private static void addShifted(long[] result, long[] x, int shift) {
+            for (int i = 0; i < x.length && i + shift < result.length; i++) {
+                result[i + shift] += x[i];
+            }
+        }
+    }
+
+    private static final class Task extends RecursiveTask<long[]> {
+        private static final long serialVersionUID = 1L;
+
+        private final long[] a;
+        private final long[] b;
+
+        Task(long[] a, long[] b) {
+            this.a = a;
+            this.b = b;
+        }
+
+        @Override
+        protected long[] compute() {
+            if (Math.min(a.length, b.length) <= THRESHOLD) {
+                return base(a, b);
+            }
+            Split s = new Split(a, b);
+            Task r1 = new Task(s.a1v, s.b1v);
+            Task rm1 = new Task(s.am1, s.bm1);
+            Task rm2 = new Task(s.am2, s.bm2);
+            Task rInf = new Task(s.a2, s.b2);
+            r1.fork();
+            rm1.fork();
+            rm2.fork();
+            rInf.fork();
+            long[] r0 = new Task(s.a0, s.b0).compute();
+            return s.interpolate(r0, r1.join(), rm1.join(), rm2.join(), rInf.join());
+        }
+    }
+}
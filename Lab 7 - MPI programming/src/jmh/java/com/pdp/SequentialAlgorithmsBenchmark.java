@@ -0,0 +1,59 @@
+package com.pdp;
+
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * CPU baselines of Lab 7 (no MPI involved), by size and coefficient bound.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class SequentialAlgorithmsBenchmark {
+
+    @Param({"1024", "2048", "8192"})
+    public int size;
+
+    @Param({"50", "1000"})
+    public int bound;
+
+    private Polynomial p;
+    private Polynomial q;
+
+    @Setup
+    public void setup() {
+        Random random = new Random(size);
+        p = randomPolynomial(random);
+        q = randomPolynomial(random);
+    }
+
+    @Benchmark
+    public Polynomial regularSequential() {
+        return SequentialAlgorithms.regularSequential(p, q);
+    }
+
+    @Benchmark
+    public Polynomial karatsubaSequential() {
+        return SequentialAlgorithms.karatsubaSequential(p, q);
+    }
+
+    @Benchmark
+    public Polynomial karatsubaInPlace() {
+        return SequentialAlgorithms.karatsubaInPlace(p, q);
+    }
+
+    private Polynomial randomPolynomial(Random random) {
+        List<Integer> coeffs = new ArrayList<>(size);
+        for (int i = 0; i < size; i++) {
+            coeffs.add(random.nextInt(bound));
+        }
+        return new Polynomial(coeffs);
+    }
+}
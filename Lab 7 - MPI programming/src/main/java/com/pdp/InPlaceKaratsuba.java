@@ -0,0 +1,140 @@
+package com.pdp;
+
+import java.util.Arrays;
+
+/**
+ * Karatsuba that works on offsets into primitive arrays (same kernel as Lab 5).
+ *
+ * z0 and z2 are written straight into the output, z1 and the operand sums live in one scratch
+ * buffer that is allocated up front. An instance keeps its buffers between calls, so repeated
+ * multiplications of the same (or smaller) size do not allocate. Instances are not thread safe.
+ */
+public final class InPlaceKaratsuba {
+
+    private static final int DEFAULT_THRESHOLD = 32;
+
+    private final int threshold;
+
+    private long[] paddedA = new long[0];
+    private long[] paddedB = new long[0];
+    private long[] scratch = new long[0];
+
+    public InPlaceKaratsuba() {
+        this(DEFAULT_THRESHOLD);
+    }
+
+    public InPlaceKaratsuba(int threshold) {
+        this.threshold = Math.max(2, threshold);
+    }
+
+    /**
+     * Writes a * b into out[0 .. a.length + b.length - 1). Does not allocate once the
+     * internal buffers are large enough for max(a.length, b.length).
+     */
+    public void multiply(long[] a, long[] b, long[] out) {
+        int n = Math.max(a.length, b.length);
+        int resultLen = a.length + b.length - 1;
+        ensureCapacity(n);
+
+        long[] x = a;
+        long[] y = b;
+        if (a.length != n) {
+            System.arraycopy(a, 0, paddedA, 0, a.length);
+            Arrays.fill(paddedA, a.length, n, 0);
+            x = paddedA;
+        }
+        if (b.length != n) {
+            System.arraycopy(b, 0, paddedB, 0, b.length);
+            Arrays.fill(paddedB, b.length, n, 0);
+            y = paddedB;
+        }
+
+        if (out.length >= 2 * n - 1) {
+            multiply(x, 0, y, 0, n, out, 0, scratch, 0, threshold);
+        } else {
+            // padded product is longer than the real one; the extra tail is all zeros
+            int s = scratch.length - (2 * n - 1);
+            multiply(x, 0, y, 0, n, scratch, s, scratch, 0, threshold);
+            System.arraycopy(scratch, s, out, 0, resultLen);
+        }
+    }
+
+    /**
+     * out[outOff .. outOff + 2n - 1) = a[aOff .. aOff + n) * b[bOff .. bOff + n).
+     * Uses scratch[sOff .. sOff + scratchSize(n)).
+     */
+    static void multiply(long[] a, int aOff, long[] b, int bOff, int n,
+                         long[] out, int outOff, long[] scratch, int sOff, int threshold) {
+        if (n <= threshold) {
+            schoolbook(a, aOff, b, bOff, n, out, outOff);
+            return;
+        }
+
+        int lo = (n + 1) / 2;
+        int hi = n - lo;
+
+        // z0 = a0 * b0 -> out[0 .. 2lo - 1), z2 = a1 * b1 -> out[2lo .. 2n - 1)
+        multiply(a, aOff, b, bOff, lo, out, outOff, scratch, sOff, threshold);
+        if (hi > 0) {
+            multiply(a, aOff + lo, b, bOff + lo, hi, out, outOff + 2 * lo, scratch, sOff, threshold);
+        }
+        out[outOff + 2 * lo - 1] = 0;
+
+        // sums of the halves and z1 go into scratch
+        int sa = sOff;
+        int sb = sa + lo;
+        int z1 = sb + lo;
+        int next = z1 + 2 * lo - 1;
+        for (int i = 0; i < lo; i++) {
+            scratch[sa + i] = a[aOff + i] + (i < hi ? a[aOff + lo + i] : 0);
+            scratch[sb + i] = b[bOff + i] + (i < hi ? b[bOff + lo + i] : 0);
+        }
+        multiply(scratch, sa, scratch, sb, lo, scratch, z1, scratch, next, threshold);
+
+        // z1 -= z0 + z2, then add it at offset lo
+        for (int i = 0; i < 2 * lo - 1; i++) {
+            scratch[z1 + i] -= out[outOff + i];
+        }
+        for (int i = 0; i < 2 * hi - 1; i++) {
+            scratch[z1 + i] -= out[outOff + 2 * lo + i];
+        }
+        for (int i = 0; i < 2 * lo - 1; i++) {
+            out[outOff + lo + i] += scratch[z1 + i];
+        }
+    }
+
+    static void schoolbook(long[] a, int aOff, long[] b, int bOff, int n, long[] out, int outOff) {
+        Arrays.fill(out, outOff, outOff + 2 * n - 1, 0);
+        for (int i = 0; i < n; i++) {
+            long ai = a[aOff + i];
+            int base = outOff + i;
+            for (int j = 0; j < n; j++) {
+                out[base + j] += ai * b[bOff + j];
+            }
+        }
+    }
+
+    /**
+     * Scratch words needed by {@link #multiply(long[], int, long[], int, int, long[], int, long[], int, int)}.
+     */
+    static int scratchSize(int n, int threshold) {
+        int size = 0;
+        while (n > threshold) {
+            int lo = (n + 1) / 2;
+            size += 4 * lo - 1;
+            n = lo;
+        }
+        return size;
+    }
+
+    private void ensureCapacity(int n) {
+        if (paddedA.length < n) {
+            paddedA = new long[n];
+            paddedB = new long[n];
+        }
+        int needed = scratchSize(n, threshold) + 2 * n - 1;
+        if (scratch.length < needed) {
+            scratch = new long[needed];
+        }
+    }
+}
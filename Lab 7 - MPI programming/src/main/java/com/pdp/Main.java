@@ -2,17 +2,31 @@ package com.pdp;
 
 import mpi.MPI;
 
+import java.io.IOException;
+import java.util.Arrays;
+
 public class Main {
 
     private static final int DEFAULT_POLY_SIZE = 2048;
     private static final int DEFAULT_MAX_COEFF = 50;
 
-    public static void main(String[] args) {
+    // -Dpdp.mpi.report=true prints one JSON line per MPI algorithm (see MpiTrace)
+    private static final boolean REPORT = Boolean.getBoolean("pdp.mpi.report");
+
+    public static void main(String[] args) throws IOException {
         MPI.Init(args);
 
         int rank = MPI.COMM_WORLD.Rank();
         int worldSize = MPI.COMM_WORLD.Size();
 
+        // Service mode: -Dpdp.mpi.service=jobs.txt | - | tcp:PORT (see MpiService)
+        String service = System.getProperty("pdp.mpi.service");
+        if (service != null) {
+            MpiService.serve(service);
+            MPI.Finalize();
+            return;
+        }
+
         int[] params = parseLastTwoInts(args, DEFAULT_POLY_SIZE, DEFAULT_MAX_COEFF);
         int polySize = params[0];
         int maxCoeff = params[1];
@@ -25,6 +39,7 @@ public class Main {
             System.out.println("World size: " + worldSize);
             System.out.println("Poly size: " + polySize + " coefficients");
             System.out.println("Max coeff (exclusive): " + maxCoeff);
+            System.out.println("Threads on rank 0: " + RankPool.threads());
         }
 
         // Root generates the polynomials. Other ranks can keep null (MPI methods handle this).
@@ -50,19 +65,57 @@ public class Main {
             cpuKar = SequentialAlgorithms.karatsubaSequential(p, q);
             long t3 = System.nanoTime();
             System.out.println("CPU Karatsuba: " + ((t3 - t2) / 1_000_000.0) + " ms");
+
+            long t8 = System.nanoTime();
+            Polynomial cpuKarInPlace = SequentialAlgorithms.karatsubaInPlace(p, q);
+            long t9 = System.nanoTime();
+            System.out.println("CPU Karatsuba (in-place): " + ((t9 - t8) / 1_000_000.0) + " ms");
+            System.out.println("CPU Karatsuba (in-place) correct vs CPU Regular: " + PolyUtils.equalsPoly(cpuKarInPlace, cpuReg));
         }
 
         // ===== MPI Regular (broadcast+gather inside) =====
+        MpiTrace.reset();
         long t4 = System.nanoTime();
-        Polynomial mpiReg = MpiRegularMultiplier.multiply(p, q);
+        Polynomial mpiReg = MpiRegularMultiplier.multiply(p, q,
+                MpiRegularMultiplier.Distribution.BROADCAST, MpiRegularMultiplier.Partitioning.EQUAL);
         long t5 = System.nanoTime();
 
         if (rank == 0) {
             System.out.println("MPI Regular:   " + ((t5 - t4) / 1_000_000.0) + " ms");
             System.out.println("MPI Regular correct vs CPU Regular: " + PolyUtils.equalsPoly(mpiReg, cpuReg));
+            System.out.println("MPI Regular compute per rank (ms): " + Arrays.toString(MpiRegularMultiplier.lastComputeMillis()));
         }
+        report("regular-broadcast");
+
+        // ===== MPI Regular (only the needed input windows are sent) =====
+        MpiTrace.reset();
+        long t10 = System.nanoTime();
+        Polynomial mpiRegWindows = MpiRegularMultiplier.multiply(p, q,
+                MpiRegularMultiplier.Distribution.WINDOWS, MpiRegularMultiplier.Partitioning.EQUAL);
+        long t11 = System.nanoTime();
+
+        if (rank == 0) {
+            System.out.println("MPI Regular (windows): " + ((t11 - t10) / 1_000_000.0) + " ms");
+            System.out.println("MPI Regular (windows) correct vs CPU Regular: " + PolyUtils.equalsPoly(mpiRegWindows, cpuReg));
+        }
+        report("regular-windows");
+
+        // ===== MPI Regular (windows, chunks balanced by work) =====
+        MpiTrace.reset();
+        long t12 = System.nanoTime();
+        Polynomial mpiRegBalanced = MpiRegularMultiplier.multiply(p, q,
+                MpiRegularMultiplier.Distribution.WINDOWS, MpiRegularMultiplier.Partitioning.BALANCED);
+        long t13 = System.nanoTime();
+
+        if (rank == 0) {
+            System.out.println("MPI Regular (balanced): " + ((t13 - t12) / 1_000_000.0) + " ms");
+            System.out.println("MPI Regular (balanced) correct vs CPU Regular: " + PolyUtils.equalsPoly(mpiRegBalanced, cpuReg));
+            System.out.println("MPI Regular (balanced) compute per rank (ms): " + Arrays.toString(MpiRegularMultiplier.lastComputeMillis()));
+        }
+        report("regular-balanced");
 
         // ===== MPI Karatsuba (workers compute tasks inside) =====
+        MpiTrace.reset();
         long t6 = System.nanoTime();
         Polynomial mpiKar = MpiKaratsubaMultiplier.multiply(p, q);
         long t7 = System.nanoTime();
@@ -71,10 +124,24 @@ public class Main {
             System.out.println("MPI Karatsuba: " + ((t7 - t6) / 1_000_000.0) + " ms");
             System.out.println("MPI Karatsuba correct vs CPU Karatsuba: " + PolyUtils.equalsPoly(mpiKar, cpuKar));
         }
+        report("karatsuba");
 
         MPI.Finalize();
     }
 
+    /**
+     * Collective when reporting is on: every rank has to call it.
+     */
+    private static void report(String label) {
+        if (!REPORT) {
+            return;
+        }
+        String json = MpiTrace.report(label);
+        if (json != null) {
+            System.out.println(json);
+        }
+    }
+
     /**
      * MPJ may inject args. We take the LAST 2 integers found in args:
      *   ... 2048 50
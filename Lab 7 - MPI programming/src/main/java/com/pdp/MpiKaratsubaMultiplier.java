@@ -1,132 +1,280 @@
 package com.pdp;
 
 import mpi.MPI;
+import mpi.Request;
+import mpi.Status;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.Deque;
+import java.util.List;
+import java.util.concurrent.ForkJoinPool;
 
 /**
  * Distributed Karatsuba using MPI.
  *
- * We distribute ONLY the top-level 3 Karatsuba multiplications:
+ * Root (rank 0) expands the Karatsuba tree level by level:
  *   z0 = p1*q1
  *   z1 = (p1+p2)*(q1+q2)
  *   z2 = p2*q2
+ * until it has a few leaves per rank (-Dpdp.mpi.tasksPerRank, default 4). The leaves form a
+ * task farm: root keeps them in a queue, largest first, and hands the next one to whichever
+ * worker returns a result (Iprobe on ANY_SOURCE), so a slow or loaded node just ends up with
+ * fewer tasks. While no result is pending root computes the smallest queued task itself.
+ * Workers use the same Karatsuba from Lab 5, forked over their {@link RankPool} when they have
+ * one, and root combines the tree bottom up.
  *
- * Root (rank 0) sends these 3 tasks to ranks 1..3 (if available).
- * Workers compute them using the same sequential Karatsuba from Lab 5
- * and send results back.
+ * Communication is overlapped with computation: root keeps up to -Dpdp.mpi.pipelineDepth tasks
+ * (default 2) in flight per worker and posts them with Isend, so it computes its own tasks while
+ * the payloads are on the wire. A worker posts the Irecv for its next task before computing the
+ * current one and sends results with Isend, so the next task arrives while the previous result
+ * is still leaving.
  */
 public final class MpiKaratsubaMultiplier {
     private static final int TAG_TASK = 10;
     private static final int TAG_RESULT = 11;
 
+    // task id telling a worker that this multiplication has no more tasks
+    private static final int NO_MORE_TASKS = -1;
+
+    private static final int TASKS_PER_RANK = Math.max(1, Integer.getInteger("pdp.mpi.tasksPerRank", 4));
+    private static final int PIPELINE_DEPTH = Math.max(1, Integer.getInteger("pdp.mpi.pipelineDepth", 2));
+
     private MpiKaratsubaMultiplier() {}
 
     public static Polynomial multiply(Polynomial p, Polynomial q) {
         int rank = MPI.COMM_WORLD.Rank();
         int worldSize = MPI.COMM_WORLD.Size();
 
+        // The tree splits both operands at the same index, so root pads the shorter one with zeros
+        // and drops the zero tail of the product.
+        if (rank == 0 && p.powers.size() != q.powers.size()) {
+            int n = Math.max(p.powers.size(), q.powers.size());
+            Polynomial padded = multiply(PolyUtils.padTo(p, n), PolyUtils.padTo(q, n));
+            return new Polynomial(new ArrayList<>(padded.powers.subList(0, p.powers.size() + q.powers.size() - 1)));
+        }
+
         // Degenerate case
         if (rank == 0 && worldSize == 1) {
-            return SequentialAlgorithms.karatsubaSequential(p, q);
+            long computeStart = MpiTrace.beginCompute();
+            Polynomial result = ParallelAlgorithms.karatsuba(p, q, RankPool.get());
+            MpiTrace.endCompute(computeStart);
+            return result;
         }
 
-        // Base case: small => compute locally (root), nothing to distribute.
-        if (rank == 0 && (p.degree() < 3 || q.degree() < 3)) {
-            return p.multiply(q);
+        if (rank != 0) {
+            return workerCompute();
         }
 
-        if (rank != 0) {
-            // Only ranks 1..3 can receive tasks (if they exist).
-            if (rank >= 1 && rank <= 3) {
-                return workerComputeOnce(rank);
+        // Root: expand the tree, small leaves stay as they are
+        long expandStart = MpiTrace.beginCompute();
+        Node root = new Node(p, q);
+        List<Node> leaves = expand(root, TASKS_PER_RANK * worldSize);
+        leaves.sort(Comparator.comparingInt(Node::work).reversed());
+        Deque<Node> queue = new ArrayDeque<>(leaves);
+        Node[] tasks = leaves.toArray(new Node[0]);
+        for (int i = 0; i < tasks.length; i++) {
+            tasks[i].id = i;
+        }
+        MpiTrace.endCompute(expandStart);
+
+        // Fill every worker's pipeline, the ones left without a task are released right away
+        List<Request> sends = new ArrayList<>();
+        boolean[] released = new boolean[worldSize];
+        int outstanding = 0;
+        for (int depth = 0; depth < PIPELINE_DEPTH; depth++) {
+            for (int r = 1; r < worldSize && !queue.isEmpty(); r++) {
+                sendTask(r, queue.pollFirst(), sends);
+                outstanding++;
             }
-            return null;
         }
+        for (int r = Math.min(worldSize, leaves.size() + 1); r < worldSize; r++) {
+            sendNoMoreTasks(r, sends);
+            released[r] = true;
+        }
+
+        while (outstanding > 0 || !queue.isEmpty()) {
+            Status status = MpiTrace.Iprobe(MPI.ANY_SOURCE, TAG_RESULT);
+            if (status == null) {
+                if (!queue.isEmpty()) {
+                    // Nothing to hand out yet, so root works on the smallest task itself
+                    Node leaf = queue.pollLast();
+                    long leafStart = MpiTrace.beginCompute();
+                    leaf.result = ParallelAlgorithms.karatsuba(leaf.p, leaf.q, RankPool.get());
+                    MpiTrace.endCompute(leafStart);
+                    continue;
+                }
+                status = MpiTrace.Probe(MPI.ANY_SOURCE, TAG_RESULT);
+            }
 
-        // Root: split
-        int split = Math.max(p.degree(), q.degree()) / 2 + 1;
-        Polynomial p1 = new Polynomial(p.powers.subList(0, split));
-        Polynomial p2 = new Polynomial(p.powers.subList(split, p.powers.size()));
-        Polynomial q1 = new Polynomial(q.powers.subList(0, split));
-        Polynomial q2 = new Polynomial(q.powers.subList(split, q.powers.size()));
-
-        Polynomial z0 = null;
-        Polynomial z1 = null;
-        Polynomial z2 = null;
-
-        // Dispatch tasks if workers exist.
-        // rank 1 -> z0, rank 2 -> z1, rank 3 -> z2
-        if (worldSize > 1) {
-            sendTask(1, p1, q1);
-        } else {
-            z0 = SequentialAlgorithms.karatsubaSequential(p1, q1);
+            int worker = status.source;
+            recvResult(worker, tasks);
+            outstanding--;
+            if (!queue.isEmpty()) {
+                sendTask(worker, queue.pollFirst(), sends);
+                outstanding++;
+            } else if (!released[worker]) {
+                // queued behind the tasks the worker still has
+                sendNoMoreTasks(worker, sends);
+                released[worker] = true;
+            }
         }
+        MpiTrace.Waitall(sends.toArray(new Request[0]));
+
+        long combineStart = MpiTrace.beginCompute();
+        Polynomial result = root.combine();
+        MpiTrace.endCompute(combineStart);
+        return result;
+    }
 
-        if (worldSize > 2) {
-            sendTask(2, p1.add(p2), q1.add(q2));
-        } else {
-            z1 = SequentialAlgorithms.karatsubaSequential(p1.add(p2), q1.add(q2));
+    /**
+     * Splits the leaves level by level until there are at least minLeaves of them
+     * (or nothing is left to split). Returns the leaves in tree order.
+     */
+    private static List<Node> expand(Node root, int minLeaves) {
+        List<Node> leaves = new ArrayList<>();
+        leaves.add(root);
+        boolean expanded = true;
+        while (leaves.size() < minLeaves && expanded) {
+            expanded = false;
+            List<Node> next = new ArrayList<>();
+            for (Node leaf : leaves) {
+                if (leaf.split()) {
+                    expanded = true;
+                    next.add(leaf.z0);
+                    next.add(leaf.z1);
+                    next.add(leaf.z2);
+                } else {
+                    next.add(leaf);
+                }
+            }
+            leaves = next;
+        }
+        return leaves;
+    }
+
+    /**
+     * One Karatsuba subproblem. After {@link #split()} the three children hold the sub-products,
+     * a leaf gets its result filled in from whichever rank computed it.
+     */
+    private static final class Node {
+        final Polynomial p;
+        final Polynomial q;
+        int id;
+        int split;
+        Node z0;
+        Node z1;
+        Node z2;
+        Polynomial result;
+
+        Node(Polynomial p, Polynomial q) {
+            this.p = p;
+            this.q = q;
         }
 
-        if (worldSize > 3) {
-            sendTask(3, p2, q2);
-        } else {
-            z2 = SequentialAlgorithms.karatsubaSequential(p2, q2);
+        int work() {
+            return p.powers.size() + q.powers.size();
         }
 
-        // Receive results for dispatched tasks
-        if (worldSize > 1) z0 = recvResult(1);
-        if (worldSize > 2) z1 = recvResult(2);
-        if (worldSize > 3) z2 = recvResult(3);
+        boolean split() {
+            // Base case: small => leave it to whoever computes the leaf
+            if (p.degree() < 3 || q.degree() < 3) {
+                return false;
+            }
+            split = Math.max(p.degree(), q.degree()) / 2 + 1;
+            Polynomial p1 = new Polynomial(p.powers.subList(0, split));
+            Polynomial p2 = new Polynomial(p.powers.subList(split, p.powers.size()));
+            Polynomial q1 = new Polynomial(q.powers.subList(0, split));
+            Polynomial q2 = new Polynomial(q.powers.subList(split, q.powers.size()));
+            z0 = new Node(p1, q1);
+            z1 = new Node(p1.add(p2), q1.add(q2));
+            z2 = new Node(p2, q2);
+            return true;
+        }
 
-        // Combine
-        return z2.toPower(2 * split)
-                .add(z1.subtract(z2).subtract(z0).toPower(split))
-                .add(z0);
+        Polynomial combine() {
+            if (result != null) {
+                return result;
+            }
+            Polynomial r0 = z0.combine();
+            Polynomial r1 = z1.combine();
+            Polynomial r2 = z2.combine();
+            return r2.toPower(2 * split)
+                    .add(r1.subtract(r2).subtract(r0).toPower(split))
+                    .add(r0);
+        }
     }
 
-    private static void sendTask(int destRank, Polynomial p, Polynomial q) {
-        if (destRank >= MPI.COMM_WORLD.Size()) return;
+    private static void sendTask(int destRank, Node task, List<Request> sends) {
+        int[] pArr = PolyUtils.toIntArray(task.p);
+        int[] qArr = PolyUtils.toIntArray(task.q);
 
-        int[] pArr = PolyUtils.toIntArray(p);
-        int[] qArr = PolyUtils.toIntArray(q);
+        int[] header = new int[]{task.id, pArr.length, qArr.length};
+        sends.add(MpiTrace.Isend(header, 0, 3, MPI.INT, destRank, TAG_TASK));
+        sends.add(MpiTrace.Isend(pArr, 0, pArr.length, MPI.INT, destRank, TAG_TASK));
+        sends.add(MpiTrace.Isend(qArr, 0, qArr.length, MPI.INT, destRank, TAG_TASK));
+    }
 
-        int[] sizes = new int[]{pArr.length, qArr.length};
-        MPI.COMM_WORLD.Send(sizes, 0, 2, MPI.INT, destRank, TAG_TASK);
-        MPI.COMM_WORLD.Send(pArr, 0, pArr.length, MPI.INT, destRank, TAG_TASK);
-        MPI.COMM_WORLD.Send(qArr, 0, qArr.length, MPI.INT, destRank, TAG_TASK);
+    private static void sendNoMoreTasks(int destRank, List<Request> sends) {
+        int[] header = new int[]{NO_MORE_TASKS, 0, 0};
+        sends.add(MpiTrace.Isend(header, 0, 3, MPI.INT, destRank, TAG_TASK));
     }
 
-    private static Polynomial recvResult(int srcRank) {
-        int[] lenArr = new int[1];
-        MPI.COMM_WORLD.Recv(lenArr, 0, 1, MPI.INT, srcRank, TAG_RESULT);
-        int len = lenArr[0];
+    private static void recvResult(int srcRank, Node[] tasks) {
+        int[] header = new int[2];
+        MpiTrace.Recv(header, 0, 2, MPI.INT, srcRank, TAG_RESULT);
+        int len = header[1];
         int[] coeffs = new int[len];
-        MPI.COMM_WORLD.Recv(coeffs, 0, len, MPI.INT, srcRank, TAG_RESULT);
-        return PolyUtils.fromIntArray(coeffs);
+        MpiTrace.Recv(coeffs, 0, len, MPI.INT, srcRank, TAG_RESULT);
+        tasks[header[0]].result = PolyUtils.fromIntArray(coeffs);
     }
 
-    private static Polynomial workerComputeOnce(int rank) {
-        // Receive sizes
-        int[] sizes = new int[2];
-        MPI.COMM_WORLD.Recv(sizes, 0, 2, MPI.INT, 0, TAG_TASK);
-        int n = sizes[0];
-        int m = sizes[1];
+    private static Polynomial workerCompute() {
+        ForkJoinPool pool = RankPool.get();
+        int[] header = new int[3];
+        MpiTrace.Recv(header, 0, 3, MPI.INT, 0, TAG_TASK);
+        Request[] resultSends = null;
+
+        while (header[0] != NO_MORE_TASKS) {
+            int id = header[0];
+            int n = header[1];
+            int m = header[2];
 
-        int[] pArr = new int[n];
-        int[] qArr = new int[m];
-        MPI.COMM_WORLD.Recv(pArr, 0, n, MPI.INT, 0, TAG_TASK);
-        MPI.COMM_WORLD.Recv(qArr, 0, m, MPI.INT, 0, TAG_TASK);
+            int[] pArr = new int[n];
+            int[] qArr = new int[m];
+            MpiTrace.Recv(pArr, 0, n, MPI.INT, 0, TAG_TASK);
+            MpiTrace.Recv(qArr, 0, m, MPI.INT, 0, TAG_TASK);
 
-        Polynomial p = PolyUtils.fromIntArray(pArr);
-        Polynomial q = PolyUtils.fromIntArray(qArr);
+            // The next task can arrive while this one is computed
+            int[] nextHeader = new int[3];
+            Request nextTask = MpiTrace.Irecv(nextHeader, 0, 3, MPI.INT, 0, TAG_TASK);
 
-        Polynomial result = SequentialAlgorithms.karatsubaSequential(p, q);
+            Polynomial p = PolyUtils.fromIntArray(pArr);
+            Polynomial q = PolyUtils.fromIntArray(qArr);
 
-        int[] resArr = PolyUtils.toIntArray(result);
-        int[] lenArr = new int[]{resArr.length};
-        MPI.COMM_WORLD.Send(lenArr, 0, 1, MPI.INT, 0, TAG_RESULT);
-        MPI.COMM_WORLD.Send(resArr, 0, resArr.length, MPI.INT, 0, TAG_RESULT);
+            long computeStart = MpiTrace.beginCompute();
+            Polynomial result = ParallelAlgorithms.karatsuba(p, q, pool);
+            MpiTrace.endCompute(computeStart);
+
+            // At most one result in flight
+            if (resultSends != null) {
+                MpiTrace.Waitall(resultSends);
+            }
+            int[] resArr = PolyUtils.toIntArray(result);
+            int[] resultHeader = new int[]{id, resArr.length};
+            resultSends = new Request[]{
+                    MpiTrace.Isend(resultHeader, 0, 2, MPI.INT, 0, TAG_RESULT),
+                    MpiTrace.Isend(resArr, 0, resArr.length, MPI.INT, 0, TAG_RESULT)
+            };
 
+            MpiTrace.Wait(nextTask);
+            header = nextHeader;
+        }
+
+        if (resultSends != null) {
+            MpiTrace.Waitall(resultSends);
+        }
         return null;
     }
 }
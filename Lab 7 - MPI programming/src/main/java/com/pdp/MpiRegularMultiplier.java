@@ -6,16 +6,40 @@ import mpi.MPI;
  * Distributed regular multiplication (O(n^2)) using MPI.
  *
  * Strategy:
- * - Broadcast both polynomials to all ranks.
- * - Split the result coefficient indices among ranks.
- * - Each rank computes its chunk of result coefficients.
- * - Root gathers all chunks with Gatherv.
+ * - Split the result coefficient indices among ranks, either in equal chunks (EQUAL) or, by default,
+ *   so that every rank does the same number of multiply-accumulates (BALANCED). Coefficient k
+ *   costs min(k, n-1) - max(0, k-m+1) + 1 terms, so equal chunks overload the middle ranks.
+ * - Send every rank the inputs it needs: either both full polynomials (BROADCAST) or, by default,
+ *   only the windows of a and b that reach its output range (WINDOWS, point to point from root).
+ * - Each rank computes its chunk of result coefficients, on its {@link RankPool} when it has one.
+ * - Root gathers all chunks with Gatherv, and the compute time of every rank with Gather
+ *   (see {@link #lastComputeMillis()}).
  */
 public final class MpiRegularMultiplier {
 
+    public enum Distribution {
+        BROADCAST,
+        WINDOWS
+    }
+
+    public enum Partitioning {
+        EQUAL,
+        BALANCED
+    }
+
+    private static final int TAG_WINDOW = 20;
+
+    // compute time of every rank in the last multiplication, only set on root
+    private static double[] lastComputeMillis;
+
     private MpiRegularMultiplier() {}
 
     public static Polynomial multiply(Polynomial p, Polynomial q) {
+        return multiply(p, q, Distribution.WINDOWS, Partitioning.BALANCED);
+    }
+
+    public static Polynomial multiply(Polynomial p, Polynomial q,
+                                      Distribution distribution, Partitioning partitioning) {
         int rank = MPI.COMM_WORLD.Rank();
         int worldSize = MPI.COMM_WORLD.Size();
 
@@ -25,40 +49,59 @@ public final class MpiRegularMultiplier {
             sizes[0] = p.powers.size();
             sizes[1] = q.powers.size();
         }
-        MPI.COMM_WORLD.Bcast(sizes, 0, 2, MPI.INT, 0);
+        MpiTrace.Bcast(sizes, 0, 2, MPI.INT, 0);
 
         int n = sizes[0];
         int m = sizes[1];
 
-        // Broadcast coefficients
-        int[] a = new int[n];
-        int[] b = new int[m];
-        if (rank == 0) {
-            a = PolyUtils.toIntArray(p);
-            b = PolyUtils.toIntArray(q);
-        }
-        MPI.COMM_WORLD.Bcast(a, 0, n, MPI.INT, 0);
-        MPI.COMM_WORLD.Bcast(b, 0, m, MPI.INT, 0);
-
         int resultLen = n + m - 1;
 
-        int chunk = (resultLen + worldSize - 1) / worldSize;
-        int start = rank * chunk;
-        int end = Math.min(resultLen, start + chunk);
-        int localLen = Math.max(0, end - start);
+        int[] bounds = partitioning == Partitioning.BALANCED
+                ? balancedBounds(n, m, worldSize)
+                : equalBounds(resultLen, worldSize);
+        int start = bounds[rank];
+        int end = bounds[rank + 1];
+        int localLen = end - start;
 
-        int[] local = new int[localLen];
+        // a[i - aFrom] holds coefficient i of p, same for b
+        int[] a;
+        int[] b;
+        int aFrom = 0;
+        int bFrom = 0;
 
-        for (int k = start; k < end; k++) {
-            long sum = 0;
-            int iMin = Math.max(0, k - (m - 1));
-            int iMax = Math.min(n - 1, k);
-            for (int i = iMin; i <= iMax; i++) {
-                sum += (long) a[i] * (long) b[k - i];
+        if (distribution == Distribution.BROADCAST) {
+            a = new int[n];
+            b = new int[m];
+            if (rank == 0) {
+                a = PolyUtils.toIntArray(p);
+                b = PolyUtils.toIntArray(q);
             }
-            local[k - start] = (int) sum;
+            MpiTrace.Bcast(a, 0, n, MPI.INT, 0);
+            MpiTrace.Bcast(b, 0, m, MPI.INT, 0);
+        } else if (rank == 0) {
+            a = PolyUtils.toIntArray(p);
+            b = PolyUtils.toIntArray(q);
+            for (int r = 1; r < worldSize; r++) {
+                int[] w = windows(bounds[r], bounds[r + 1], n, m);
+                MpiTrace.Send(a, w[0], w[1] - w[0], MPI.INT, r, TAG_WINDOW);
+                MpiTrace.Send(b, w[2], w[3] - w[2], MPI.INT, r, TAG_WINDOW);
+            }
+        } else {
+            int[] w = windows(start, end, n, m);
+            aFrom = w[0];
+            bFrom = w[2];
+            a = new int[w[1] - w[0]];
+            b = new int[w[3] - w[2]];
+            MpiTrace.Recv(a, 0, a.length, MPI.INT, 0, TAG_WINDOW);
+            MpiTrace.Recv(b, 0, b.length, MPI.INT, 0, TAG_WINDOW);
         }
 
+        int[] local = new int[localLen];
+        long computeStart = MpiTrace.beginCompute();
+        ParallelAlgorithms.regularRange(a, aFrom, b, bFrom, start, end, local, RankPool.get());
+        MpiTrace.endCompute(computeStart);
+        long[] computeNanos = new long[]{System.nanoTime() - computeStart};
+
         // Gather
         int[] result = null;
         int[] recvCounts = null;
@@ -69,19 +112,83 @@ public final class MpiRegularMultiplier {
             recvCounts = new int[worldSize];
             displs = new int[worldSize];
             for (int r = 0; r < worldSize; r++) {
-                int s = r * chunk;
-                int e = Math.min(resultLen, s + chunk);
-                recvCounts[r] = Math.max(0, e - s);
-                displs[r] = s;
+                recvCounts[r] = bounds[r + 1] - bounds[r];
+                displs[r] = bounds[r];
             }
         }
 
-        MPI.COMM_WORLD.Gatherv(
+        MpiTrace.Gatherv(
                 local, 0, localLen, MPI.INT,
                 result, 0, recvCounts, displs, MPI.INT,
                 0
         );
 
+        long[] allComputeNanos = (rank == 0) ? new long[worldSize] : null;
+        MpiTrace.Gather(computeNanos, 0, 1, MPI.LONG, allComputeNanos, 0, 1, MPI.LONG, 0);
+        if (rank == 0) {
+            lastComputeMillis = new double[worldSize];
+            for (int r = 0; r < worldSize; r++) {
+                lastComputeMillis[r] = allComputeNanos[r] / 1_000_000.0;
+            }
+        }
+
         return (rank == 0) ? PolyUtils.fromIntArray(result) : null;
     }
+
+    /**
+     * Compute time (ms, excluding communication) of every rank in the last multiplication.
+     * Only available on root.
+     */
+    public static double[] lastComputeMillis() {
+        return lastComputeMillis;
+    }
+
+    /**
+     * Rank r gets [bounds[r], bounds[r + 1]). Ranks past the end of the result get an empty chunk at resultLen.
+     */
+    private static int[] equalBounds(int resultLen, int worldSize) {
+        int chunk = (resultLen + worldSize - 1) / worldSize;
+        int[] bounds = new int[worldSize + 1];
+        for (int r = 0; r <= worldSize; r++) {
+            bounds[r] = (int) Math.min(resultLen, (long) r * chunk);
+        }
+        return bounds;
+    }
+
+    /**
+     * Bounds where the cumulative work first reaches r / worldSize of n * m, so every rank
+     * computes about n * m / worldSize products.
+     */
+    private static int[] balancedBounds(int n, int m, int worldSize) {
+        int resultLen = n + m - 1;
+        long total = (long) n * m;
+        int[] bounds = new int[worldSize + 1];
+        bounds[worldSize] = resultLen;
+
+        long done = 0;
+        int k = 0;
+        for (int r = 1; r < worldSize; r++) {
+            long target = total * r / worldSize;
+            while (k < resultLen && done < target) {
+                done += Math.min(k, n - 1) - Math.max(0, k - m + 1) + 1;
+                k++;
+            }
+            bounds[r] = k;
+        }
+        return bounds;
+    }
+
+    /**
+     * Coefficients of a and b that output range [start, end) reads, as
+     * {aFrom, aTo, bFrom, bTo} (exclusive ends, empty for an empty range).
+     */
+    private static int[] windows(int start, int end, int n, int m) {
+        if (start >= end) {
+            return new int[4];
+        }
+        return new int[]{
+                Math.max(0, start - (m - 1)), Math.min(n, end),
+                Math.max(0, start - (n - 1)), Math.min(m, end)
+        };
+    }
 }
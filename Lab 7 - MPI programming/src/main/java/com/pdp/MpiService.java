@@ -0,0 +1,210 @@
+package com.pdp;
+
+import mpi.MPI;
+import mpi.Status;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStreamWriter;
+import java.io.PrintWriter;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Long running MPI multiplication service: one launch (and one JIT warm-up) serves many jobs.
+ *
+ * Root reads jobs, one per line, from a file, from stdin ("-") or from TCP clients ("tcp:PORT"):
+ *   karatsuba 1,2,3 4,5,6        explicit coefficients, free term first
+ *   regular random 2048 50       two random polynomials of 2048 coefficients below 50
+ *   shutdown                     stops the service (end of a file or of stdin does too)
+ * and answers each with "jobNumber algorithm millis coefficients" (or "error message") on stdout
+ * or on the client connection.
+ *
+ * Before every job root sends each worker a TAG_JOB message with the algorithm, then all ranks run
+ * the usual MPI multiplier. Workers loop on these messages until they receive TAG_SHUTDOWN.
+ * Jobs are fully checked before TAG_JOB goes out, so a rejected job is answered with an error line
+ * and never reaches the workers. A job that fails on any rank after dispatch leaves the other ranks
+ * blocked somewhere inside the multiplier with no way to bring them back in step, so that rank
+ * aborts the whole MPI run.
+ */
+public final class MpiService {
+
+    public enum Algorithm {
+        REGULAR,
+        KARATSUBA
+    }
+
+    private static final int TAG_JOB = 30;
+    private static final int TAG_SHUTDOWN = 31;
+
+    private static final String TCP_PREFIX = "tcp:";
+    private static final String STDIN = "-";
+
+    private static int jobCount;
+
+    private MpiService() {}
+
+    /**
+     * Called by every rank; returns once the service is shut down.
+     */
+    public static void serve(String source) throws IOException {
+        if (MPI.COMM_WORLD.Rank() != 0) {
+            workerLoop();
+            return;
+        }
+        try {
+            if (source.startsWith(TCP_PREFIX)) {
+                serveSocket(Integer.parseInt(source.substring(TCP_PREFIX.length())));
+            } else if (source.equals(STDIN)) {
+                serveStream(new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8)),
+                        new PrintWriter(System.out, true));
+            } else {
+                try (BufferedReader in = Files.newBufferedReader(Paths.get(source))) {
+                    serveStream(in, new PrintWriter(System.out, true));
+                }
+            }
+        } finally {
+            shutdownWorkers();
+        }
+    }
+
+    private static void serveSocket(int port) throws IOException {
+        try (ServerSocket server = new ServerSocket(port)) {
+            System.out.println("Service listening on port " + port);
+            boolean shutdown = false;
+            while (!shutdown) {
+                try (Socket client = server.accept();
+                     BufferedReader in = new BufferedReader(
+                             new InputStreamReader(client.getInputStream(), StandardCharsets.UTF_8));
+                     PrintWriter out = new PrintWriter(
+                             new OutputStreamWriter(client.getOutputStream(), StandardCharsets.UTF_8), true)) {
+                    shutdown = serveStream(in, out);
+                }
+            }
+        }
+    }
+
+    /**
+     * Runs every job of the stream. Returns true if it asked for a shutdown.
+     */
+    private static boolean serveStream(BufferedReader in, PrintWriter out) throws IOException {
+        String line;
+        while ((line = in.readLine()) != null) {
+            line = line.trim();
+            if (line.isEmpty() || line.startsWith("#")) {
+                continue;
+            }
+            if (line.equals("shutdown")) {
+                return true;
+            }
+            out.println(runJob(line));
+        }
+        // end of a file or of stdin ends the service anyway, a socket client just disconnected
+        return false;
+    }
+
+    private static String runJob(String line) {
+        Algorithm algorithm;
+        Polynomial p;
+        Polynomial q;
+        try {
+            String[] parts = line.split("\\s+");
+            algorithm = Algorithm.valueOf(parts[0].toUpperCase());
+            if (parts[1].equals("random")) {
+                int size = Integer.parseInt(parts[2]);
+                int maxCoeff = Integer.parseInt(parts[3]);
+                if (size < 1 || maxCoeff < 1) {
+                    throw new IllegalArgumentException("size and max coefficient must be positive");
+                }
+                p = PolyUtils.randomPolynomial(size, maxCoeff);
+                q = PolyUtils.randomPolynomial(size, maxCoeff);
+            } else {
+                p = parsePolynomial(parts[1]);
+                q = parsePolynomial(parts[2]);
+            }
+        } catch (RuntimeException e) {
+            // bad jobs are answered by root alone, the workers never hear about them
+            return "error invalid job: " + line;
+        }
+
+        for (int r = 1; r < MPI.COMM_WORLD.Size(); r++) {
+            MPI.COMM_WORLD.Send(new int[]{algorithm.ordinal()}, 0, 1, MPI.INT, r, TAG_JOB);
+        }
+        long t0 = System.nanoTime();
+        Polynomial result;
+        try {
+            result = run(algorithm, p, q);
+        } catch (RuntimeException e) {
+            abort(e);
+            throw e;
+        }
+        long t1 = System.nanoTime();
+
+        jobCount++;
+        return jobCount + " " + algorithm + " " + ((t1 - t0) / 1_000_000.0) + " " + format(result);
+    }
+
+    private static Polynomial run(Algorithm algorithm, Polynomial p, Polynomial q) {
+        if (algorithm == Algorithm.REGULAR) {
+            return MpiRegularMultiplier.multiply(p, q);
+        }
+        return MpiKaratsubaMultiplier.multiply(p, q);
+    }
+
+    private static void workerLoop() {
+        int[] job = new int[1];
+        while (true) {
+            // every job message comes before the messages of the job itself, so ANY_TAG only sees control messages
+            Status status = MPI.COMM_WORLD.Recv(job, 0, 1, MPI.INT, 0, MPI.ANY_TAG);
+            if (status.tag == TAG_SHUTDOWN) {
+                return;
+            }
+            try {
+                run(Algorithm.values()[job[0]], null, null);
+            } catch (RuntimeException e) {
+                abort(e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * A job failed after TAG_JOB went out: the other ranks wait for messages of that job that
+     * will never come, so nothing short of ending the run gets them out.
+     */
+    private static void abort(RuntimeException e) {
+        System.err.printf("[rank %d] job failed, aborting the service: %s%n", MPI.COMM_WORLD.Rank(), e);
+        MPI.COMM_WORLD.Abort(1);
+    }
+
+    private static void shutdownWorkers() {
+        for (int r = 1; r < MPI.COMM_WORLD.Size(); r++) {
+            MPI.COMM_WORLD.Send(new int[1], 0, 1, MPI.INT, r, TAG_SHUTDOWN);
+        }
+    }
+
+    private static Polynomial parsePolynomial(String text) {
+        List<Integer> coeffs = new ArrayList<>();
+        for (String c : text.split(",")) {
+            coeffs.add(Integer.parseInt(c.trim()));
+        }
+        return new Polynomial(coeffs);
+    }
+
+    private static String format(Polynomial p) {
+        StringBuilder sb = new StringBuilder();
+        for (int i = 0; i < p.powers.size(); i++) {
+            if (i > 0) {
+                sb.append(',');
+            }
+            sb.append(p.powers.get(i));
+        }
+        return sb.toString();
+    }
+}
@@ -0,0 +1,258 @@
+package com.pdp;
+
+import mpi.Datatype;
+import mpi.MPI;
+import mpi.Request;
+import mpi.Status;
+
+import java.util.Locale;
+
+/**
+ * Instrumented MPI calls used by the multipliers.
+ *
+ * Every call records its time and payload bytes per operation, and blocks between
+ * {@link #beginCompute()} and {@link #endCompute(long)} count as local computation. In the report,
+ * time in Probe and Wait (doing nothing until a peer is ready) is idle, the other calls are
+ * communication, and the rest of the wall time since {@link #reset()} is "other" (conversions and
+ * bookkeeping). A blocking Recv or Bcast also counts the time spent waiting for its peer under that
+ * call. {@link #report(String)} gathers all ranks on root as one JSON line.
+ *
+ * The counters are per thread rather than static because MPJ's multicore device runs every rank
+ * as a thread of one JVM; all MPI calls of a rank are made from its main thread.
+ */
+public final class MpiTrace {
+
+    public enum Op {
+        BCAST,
+        SEND,
+        RECV,
+        ISEND,
+        IRECV,
+        WAIT,
+        PROBE,
+        IPROBE,
+        GATHER,
+        GATHERV
+    }
+
+    private static final Op[] OPS = Op.values();
+
+    // wall, compute, bytes sent, bytes received, then calls and nanos for every op
+    private static final int FIXED_FIELDS = 4;
+    private static final int FIELDS = FIXED_FIELDS + 2 * OPS.length;
+
+    private static final class Counters {
+        long start = System.nanoTime();
+        long computeNanos;
+        long bytesSent;
+        long bytesReceived;
+        final long[] calls = new long[OPS.length];
+        final long[] nanos = new long[OPS.length];
+    }
+
+    private static final ThreadLocal<Counters> COUNTERS = ThreadLocal.withInitial(Counters::new);
+
+    private MpiTrace() {}
+
+    public static void reset() {
+        COUNTERS.set(new Counters());
+    }
+
+    /**
+     * Start of a block of local computation, pass the returned value to {@link #endCompute(long)}.
+     */
+    public static long beginCompute() {
+        return System.nanoTime();
+    }
+
+    public static void endCompute(long begin) {
+        COUNTERS.get().computeNanos += System.nanoTime() - begin;
+    }
+
+    public static void Bcast(Object buf, int offset, int count, Datatype type, int root) {
+        long t0 = System.nanoTime();
+        MPI.COMM_WORLD.Bcast(buf, offset, count, type, root);
+        long bytes = bytes(count, type);
+        if (MPI.COMM_WORLD.Rank() == root) {
+            record(Op.BCAST, t0, bytes * (MPI.COMM_WORLD.Size() - 1), 0);
+        } else {
+            record(Op.BCAST, t0, 0, bytes);
+        }
+    }
+
+    public static void Send(Object buf, int offset, int count, Datatype type, int dest, int tag) {
+        long t0 = System.nanoTime();
+        MPI.COMM_WORLD.Send(buf, offset, count, type, dest, tag);
+        record(Op.SEND, t0, bytes(count, type), 0);
+    }
+
+    public static Status Recv(Object buf, int offset, int count, Datatype type, int source, int tag) {
+        long t0 = System.nanoTime();
+        Status status = MPI.COMM_WORLD.Recv(buf, offset, count, type, source, tag);
+        record(Op.RECV, t0, 0, bytes(count, type));
+        return status;
+    }
+
+    public static Request Isend(Object buf, int offset, int count, Datatype type, int dest, int tag) {
+        long t0 = System.nanoTime();
+        Request request = MPI.COMM_WORLD.Isend(buf, offset, count, type, dest, tag);
+        record(Op.ISEND, t0, bytes(count, type), 0);
+        return request;
+    }
+
+    public static Request Irecv(Object buf, int offset, int count, Datatype type, int source, int tag) {
+        long t0 = System.nanoTime();
+        Request request = MPI.COMM_WORLD.Irecv(buf, offset, count, type, source, tag);
+        record(Op.IRECV, t0, 0, bytes(count, type));
+        return request;
+    }
+
+    public static Status Wait(Request request) {
+        long t0 = System.nanoTime();
+        Status status = request.Wait();
+        record(Op.WAIT, t0, 0, 0);
+        return status;
+    }
+
+    public static void Waitall(Request[] requests) {
+        long t0 = System.nanoTime();
+        Request.Waitall(requests);
+        record(Op.WAIT, t0, 0, 0);
+    }
+
+    public static Status Probe(int source, int tag) {
+        long t0 = System.nanoTime();
+        Status status = MPI.COMM_WORLD.Probe(source, tag);
+        record(Op.PROBE, t0, 0, 0);
+        return status;
+    }
+
+    public static Status Iprobe(int source, int tag) {
+        long t0 = System.nanoTime();
+        Status status = MPI.COMM_WORLD.Iprobe(source, tag);
+        record(Op.IPROBE, t0, 0, 0);
+        return status;
+    }
+
+    public static void Gather(Object sendBuf, int sendOffset, int sendCount, Datatype sendType,
+                              Object recvBuf, int recvOffset, int recvCount, Datatype recvType, int root) {
+        long t0 = System.nanoTime();
+        MPI.COMM_WORLD.Gather(sendBuf, sendOffset, sendCount, sendType,
+                recvBuf, recvOffset, recvCount, recvType, root);
+        if (MPI.COMM_WORLD.Rank() == root) {
+            record(Op.GATHER, t0, 0, bytes(recvCount, recvType) * (MPI.COMM_WORLD.Size() - 1));
+        } else {
+            record(Op.GATHER, t0, bytes(sendCount, sendType), 0);
+        }
+    }
+
+    public static void Gatherv(Object sendBuf, int sendOffset, int sendCount, Datatype sendType,
+                               Object recvBuf, int recvOffset, int[] recvCounts, int[] displs,
+                               Datatype recvType, int root) {
+        long t0 = System.nanoTime();
+        MPI.COMM_WORLD.Gatherv(sendBuf, sendOffset, sendCount, sendType,
+                recvBuf, recvOffset, recvCounts, displs, recvType, root);
+        if (MPI.COMM_WORLD.Rank() == root) {
+            // root's own block is not received from anybody
+            long received = 0;
+            for (int r = 0; r < recvCounts.length; r++) {
+                if (r != root) {
+                    received += bytes(recvCounts[r], recvType);
+                }
+            }
+            record(Op.GATHERV, t0, 0, received);
+        } else {
+            record(Op.GATHERV, t0, bytes(sendCount, sendType), 0);
+        }
+    }
+
+    private static void record(Op op, long t0, long sent, long received) {
+        Counters c = COUNTERS.get();
+        c.calls[op.ordinal()]++;
+        c.nanos[op.ordinal()] += System.nanoTime() - t0;
+        c.bytesSent += sent;
+        c.bytesReceived += received;
+    }
+
+    private static long bytes(int count, Datatype type) {
+        if (type == MPI.INT) return 4L * count;
+        if (type == MPI.LONG || type == MPI.DOUBLE) return 8L * count;
+        if (type == MPI.BYTE) return count;
+        // object sizes are not known before serialization
+        return 0;
+    }
+
+    /**
+     * Collective: gathers the counters of every rank since the last {@link #reset()}. Root gets a
+     * single line of JSON, the other ranks null. The gather itself is not counted.
+     */
+    public static String report(String label) {
+        Counters c = COUNTERS.get();
+        long[] mine = new long[FIELDS];
+        mine[0] = System.nanoTime() - c.start;
+        mine[1] = c.computeNanos;
+        mine[2] = c.bytesSent;
+        mine[3] = c.bytesReceived;
+        for (int i = 0; i < OPS.length; i++) {
+            mine[FIXED_FIELDS + 2 * i] = c.calls[i];
+            mine[FIXED_FIELDS + 2 * i + 1] = c.nanos[i];
+        }
+
+        int rank = MPI.COMM_WORLD.Rank();
+        int worldSize = MPI.COMM_WORLD.Size();
+        long[] all = (rank == 0) ? new long[FIELDS * worldSize] : null;
+        MPI.COMM_WORLD.Gather(mine, 0, FIELDS, MPI.LONG, all, 0, FIELDS, MPI.LONG, 0);
+        if (rank != 0) {
+            return null;
+        }
+
+        StringBuilder json = new StringBuilder();
+        json.append("{\"label\":\"").append(label).append("\",\"worldSize\":").append(worldSize).append(",\"ranks\":[");
+        for (int r = 0; r < worldSize; r++) {
+            int base = r * FIELDS;
+            long wall = all[base];
+            long compute = all[base + 1];
+            long communication = 0;
+            long idle = 0;
+            for (int i = 0; i < OPS.length; i++) {
+                long nanos = all[base + FIXED_FIELDS + 2 * i + 1];
+                if (OPS[i] == Op.PROBE || OPS[i] == Op.WAIT) {
+                    idle += nanos;
+                } else {
+                    communication += nanos;
+                }
+            }
+            if (r > 0) {
+                json.append(',');
+            }
+            json.append("{\"rank\":").append(r)
+                    .append(",\"wallMs\":").append(millis(wall))
+                    .append(",\"computeMs\":").append(millis(compute))
+                    .append(",\"communicationMs\":").append(millis(communication))
+                    .append(",\"idleMs\":").append(millis(idle))
+                    .append(",\"otherMs\":").append(millis(Math.max(0, wall - compute - communication - idle)))
+                    .append(",\"bytesSent\":").append(all[base + 2])
+                    .append(",\"bytesReceived\":").append(all[base + 3])
+                    .append(",\"ops\":{");
+            boolean first = true;
+            for (int i = 0; i < OPS.length; i++) {
+                long calls = all[base + FIXED_FIELDS + 2 * i];
+                if (calls == 0) {
+                    continue;
+                }
+                if (!first) {
+                    json.append(',');
+                }
+                first = false;
+                json.append('"').append(OPS[i].name().toLowerCase(Locale.ROOT)).append("\":{\"calls\":").append(calls)
+                        .append(",\"ms\":").append(millis(all[base + FIXED_FIELDS + 2 * i + 1])).append('}');
+            }
+            json.append("}}");
+        }
+        return json.append("]}").toString();
+    }
+
+    private static String millis(long nanos) {
+        return String.format(Locale.ROOT, "%.3f", nanos / 1_000_000.0);
+    }
+}
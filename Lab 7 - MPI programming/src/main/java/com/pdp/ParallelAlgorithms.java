@@ -0,0 +1,130 @@
+package com.pdp;
+
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveAction;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * ForkJoin versions of the CPU algorithms, used by the MPI multipliers for the share of one rank.
+ * A null pool falls back to the sequential code.
+ */
+public final class ParallelAlgorithms {
+
+    // below this many coefficients a Karatsuba subproblem is not worth forking
+    private static final int KARATSUBA_FORK_THRESHOLD = 256;
+    // result coefficients per regular task
+    private static final int RANGE_GRAIN = 256;
+
+    private ParallelAlgorithms() {}
+
+    public static Polynomial karatsuba(Polynomial p, Polynomial q, ForkJoinPool pool) {
+        if (pool == null) {
+            return SequentialAlgorithms.karatsubaSequential(p, q);
+        }
+        return pool.invoke(new KaratsubaTask(p, q));
+    }
+
+    /**
+     * out[k - start] = sum of a[i] * b[k - i] for k in [start, end). Sums are taken in long and a
+     * coefficient that does not fit in an int throws ArithmeticException instead of wrapping.
+     */
+    public static void regularRange(int[] a, int[] b, int start, int end, int[] out, ForkJoinPool pool) {
+        regularRange(a, 0, b, 0, start, end, out, pool);
+    }
+
+    /**
+     * Same, for windows of the operands: a[i - aFrom] is coefficient i and b[j - bFrom] is coefficient j.
+     * The windows must hold every coefficient that [start, end) reads.
+     */
+    public static void regularRange(int[] a, int aFrom, int[] b, int bFrom, int start, int end, int[] out,
+                                    ForkJoinPool pool) {
+        if (pool == null) {
+            computeRange(a, aFrom, b, bFrom, start, end, out, start);
+        } else {
+            pool.invoke(new RangeTask(a, aFrom, b, bFrom, start, end, out, start));
+        }
+    }
+
+    private static void computeRange(int[] a, int aFrom, int[] b, int bFrom, int from, int to,
+                                     int[] out, int outOffset) {
+        int aTo = aFrom + a.length;
+        int bTo = bFrom + b.length;
+        for (int k = from; k < to; k++) {
+            long sum = 0;
+            int iMin = Math.max(aFrom, k - (bTo - 1));
+            int iMax = Math.min(aTo - 1, k - bFrom);
+            for (int i = iMin; i <= iMax; i++) {
+                sum = Math.addExact(sum, (long) a[i - aFrom] * (long) b[k - i - bFrom]);
+            }
+            out[k - outOffset] = Math.toIntExact(sum);
+        }
+    }
+
+    private static final class RangeTask extends RecursiveAction {
+        private final int[] a;
+        private final int aFrom;
+        private final int[] b;
+        private final int bFrom;
+        private final int from;
+        private final int to;
+        private final int[] out;
+        private final int outOffset;
+
+        RangeTask(int[] a, int aFrom, int[] b, int bFrom, int from, int to, int[] out, int outOffset) {
+            this.a = a;
+            this.aFrom = aFrom;
+            this.b = b;
+            this.bFrom = bFrom;
+            this.from = from;
+            this.to = to;
+            this.out = out;
+            this.outOffset = outOffset;
+        }
+
+        @Override
+        protected void compute() {
+            if (to - from <= RANGE_GRAIN) {
+                computeRange(a, aFrom, b, bFrom, from, to, out, outOffset);
+                return;
+            }
+            int mid = (from + to) >>> 1;
+            invokeAll(new RangeTask(a, aFrom, b, bFrom, from, mid, out, outOffset),
+                    new RangeTask(a, aFrom, b, bFrom, mid, to, out, outOffset));
+        }
+    }
+
+    private static final class KaratsubaTask extends RecursiveTask<Polynomial> {
+        private final Polynomial p;
+        private final Polynomial q;
+
+        KaratsubaTask(Polynomial p, Polynomial q) {
+            this.p = p;
+            this.q = q;
+        }
+
+        @Override
+        protected Polynomial compute() {
+            if (Math.min(p.powers.size(), q.powers.size()) <= KARATSUBA_FORK_THRESHOLD) {
+                return SequentialAlgorithms.karatsubaSequential(p, q);
+            }
+
+            int split = Math.max(p.degree(), q.degree()) / 2 + 1;
+            Polynomial p1 = new Polynomial(p.powers.subList(0, split));
+            Polynomial p2 = new Polynomial(p.powers.subList(split, p.powers.size()));
+            Polynomial q1 = new Polynomial(q.powers.subList(0, split));
+            Polynomial q2 = new Polynomial(q.powers.subList(split, q.powers.size()));
+
+            KaratsubaTask t0 = new KaratsubaTask(p1, q1);
+            KaratsubaTask t1 = new KaratsubaTask(p1.add(p2), q1.add(q2));
+            t0.fork();
+            t1.fork();
+            Polynomial z2 = new KaratsubaTask(p2, q2).compute();
+            Polynomial z1 = t1.join();
+            Polynomial z0 = t0.join();
+
+            return z2.toPower(2 * split)
+                    .add(z1.subtract(z2).subtract(z0).toPower(split))
+                    .add(z0);
+        }
+    }
+}
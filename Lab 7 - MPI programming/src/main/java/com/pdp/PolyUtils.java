@@ -25,6 +25,26 @@ public final class PolyUtils {
         return a;
     }
 
+    public static long[] toLongArray(Polynomial p) {
+        long[] a = new long[p.powers.size()];
+        for (int i = 0; i < p.powers.size(); i++) {
+            a[i] = p.powers.get(i);
+        }
+        return a;
+    }
+
+    /**
+     * Throws ArithmeticException if a coefficient does not fit in an int, same as the int[] based
+     * MPI path.
+     */
+    public static Polynomial fromLongArray(long[] a) {
+        List<Integer> coeffs = new ArrayList<>(a.length);
+        for (long v : a) {
+            coeffs.add(Math.toIntExact(v));
+        }
+        return new Polynomial(coeffs);
+    }
+
     public static Polynomial fromIntArray(int[] a) {
         List<Integer> coeffs = new ArrayList<>(a.length);
         for (int v : a) {
@@ -33,6 +53,20 @@ public final class PolyUtils {
         return new Polynomial(coeffs);
     }
 
+    /**
+     * p with zero coefficients appended up to size (p itself if it is already that long).
+     */
+    public static Polynomial padTo(Polynomial p, int size) {
+        if (p.powers.size() >= size) {
+            return p;
+        }
+        List<Integer> coeffs = new ArrayList<>(p.powers);
+        while (coeffs.size() < size) {
+            coeffs.add(0);
+        }
+        return new Polynomial(coeffs);
+    }
+
     public static boolean equalsPoly(Polynomial p, Polynomial q) {
         if (p == null || q == null) return false;
         if (p.powers.size() != q.powers.size()) return false;
@@ -1,15 +1,13 @@
 package com.pdp;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collections;
 import java.util.List;
-import java.util.concurrent.locks.Lock;
-import java.util.concurrent.locks.ReentrantLock;
 
 //@Data
 public class Polynomial {
     public List<Integer> powers;
-    List<Lock> locks = new ArrayList<>();
 
     public Polynomial(List<Integer> powers) {
         this.powers = powers;
@@ -25,7 +23,8 @@ public class Polynomial {
 
         for (int i = 0; i < this.powers.size(); i++) {
             for (int j = 0; j < other.powers.size(); j++) {
-                result.powers.set(i + j, result.powers.get(i + j) + this.powers.get(i) * other.powers.get(j));
+                result.powers.set(i + j, Math.addExact(result.powers.get(i + j),
+                        Math.multiplyExact(this.powers.get(i), other.powers.get(j))));
             }
         }
         return result;
@@ -38,17 +37,20 @@ public class Polynomial {
                 '}';
     }
 
+    /**
+     * Splits the result coefficient indices among the threads (same chunk/start/end math as
+     * MpiRegularMultiplier). Every thread writes a disjoint slice of the result, so no locking is needed.
+     */
     public Polynomial multiplyParallel(Polynomial other, int threadCount) throws InterruptedException {
-        Polynomial result = new Polynomial(
-                new ArrayList<>(Collections.nCopies(this.powers.size() + other.powers.size() - 1, 0)));
-        result.powers.forEach(ignored -> locks.add(new ReentrantLock()));
+        int resultLen = this.powers.size() + other.powers.size() - 1;
+        Integer[] result = new Integer[resultLen];
 
         List<Thread> threads = new ArrayList<>();
-        int batchSize = this.powers.size() / threadCount + 1;
+        int chunk = (resultLen + threadCount - 1) / threadCount;
 
-        for (int i = 0; i < this.powers.size(); i += batchSize) {
-            int startIndex = i;
-            int finalIndex = Math.min(i + batchSize, this.powers.size());
+        for (int start = 0; start < resultLen; start += chunk) {
+            int startIndex = start;
+            int finalIndex = Math.min(resultLen, start + chunk);
             Thread thread = new Thread(() -> multiplyParallelForIndexes(startIndex, finalIndex, other, result));
             thread.start();
             threads.add(thread);
@@ -58,16 +60,20 @@ public class Polynomial {
             thread.join();
         }
 
-        return result;
+        return new Polynomial(new ArrayList<>(Arrays.asList(result)));
     }
 
-    private void multiplyParallelForIndexes(int startIndex, int finalIndex, Polynomial other, Polynomial result) {
-        for (int i = startIndex; i < finalIndex; i++) {
-            for (int j = 0; j < other.powers.size(); j++) {
-                locks.get(i + j).lock();
-                result.powers.set(i + j, result.powers.get(i + j) + this.powers.get(i) * other.powers.get(j));
-                locks.get(i + j).unlock();
+    private void multiplyParallelForIndexes(int startIndex, int finalIndex, Polynomial other, Integer[] result) {
+        int n = this.powers.size();
+        int m = other.powers.size();
+        for (int k = startIndex; k < finalIndex; k++) {
+            int sum = 0;
+            int iMin = Math.max(0, k - (m - 1));
+            int iMax = Math.min(n - 1, k);
+            for (int i = iMin; i <= iMax; i++) {
+                sum = Math.addExact(sum, Math.multiplyExact(this.powers.get(i), other.powers.get(k - i)));
             }
+            result[k] = sum;
         }
     }
 
@@ -79,7 +85,7 @@ public class Polynomial {
         Polynomial result = new Polynomial(new ArrayList<>(Collections.nCopies(this.powers.size(), 0)));
         int i, index;
         for (i = 0; i < Math.min(this.powers.size(), other.powers.size()); i++) {
-            result.powers.set(i, this.powers.get(i) + other.powers.get(i));
+            result.powers.set(i, Math.addExact(this.powers.get(i), other.powers.get(i)));
         }
         index = i;
         while (index < this.powers.size()){
@@ -103,9 +109,12 @@ public class Polynomial {
     }
 
     public Polynomial subtract(Polynomial other) {
-        Polynomial result = new Polynomial(new ArrayList<>(Collections.nCopies(this.powers.size(), 0)));
-        for (int i = 0; i < Math.min(this.powers.size(), other.powers.size()); i++) {
-            result.powers.set(i, this.powers.get(i) - other.powers.get(i));
+        Polynomial result = new Polynomial(new ArrayList<>(this.powers));
+        while (result.powers.size() < other.powers.size()) {
+            result.powers.add(0);
+        }
+        for (int i = 0; i < other.powers.size(); i++) {
+            result.powers.set(i, Math.subtractExact(result.powers.get(i), other.powers.get(i)));
         }
         return result;
     }
@@ -0,0 +1,44 @@
+package com.pdp;
+
+import mpi.MPI;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ForkJoinPool;
+
+/**
+ * Per-rank thread pool for the hybrid MPI + threads mode.
+ *
+ * The thread count comes from -Dpdp.mpi.threads, either one number for every rank or a comma
+ * separated list indexed by rank (the last entry covers the remaining ranks), e.g.
+ * -Dpdp.mpi.threads=8,4 gives rank 0 eight threads and every other rank four.
+ * With one thread (the default) the MPI multipliers stay single threaded.
+ * Pools are kept per rank, since MPJ's multicore device runs all ranks in one JVM.
+ */
+public final class RankPool {
+
+    private static final Map<Integer, ForkJoinPool> POOLS = new ConcurrentHashMap<>();
+
+    private RankPool() {}
+
+    public static int threads() {
+        return threads(System.getProperty("pdp.mpi.threads", "1"), MPI.COMM_WORLD.Rank());
+    }
+
+    static int threads(String spec, int rank) {
+        String[] counts = spec.split(",");
+        String count = counts[Math.min(rank, counts.length - 1)].trim();
+        return Math.max(1, Integer.parseInt(count));
+    }
+
+    /**
+     * The pool of this rank, or null when it runs with a single thread.
+     */
+    public static ForkJoinPool get() {
+        int threads = threads();
+        if (threads == 1) {
+            return null;
+        }
+        return POOLS.computeIfAbsent(MPI.COMM_WORLD.Rank(), rank -> new ForkJoinPool(threads));
+    }
+}
@@ -5,6 +5,10 @@ package com.pdp;
  */
 public final class SequentialAlgorithms {
 
+    // InPlaceKaratsuba keeps its buffers between calls but is not thread safe
+    private static final ThreadLocal<InPlaceKaratsuba> IN_PLACE_KARATSUBA =
+            ThreadLocal.withInitial(InPlaceKaratsuba::new);
+
     private SequentialAlgorithms() {}
 
     public static Polynomial regularSequential(Polynomial p, Polynomial q) {
@@ -30,4 +34,15 @@ public final class SequentialAlgorithms {
                 .add(z1.subtract(z2).subtract(z0).toPower(split))
                 .add(z0);
     }
+
+    /**
+     * Karatsuba on primitive arrays with a reused scratch buffer (no per-level allocation).
+     */
+    public static Polynomial karatsubaInPlace(Polynomial p, Polynomial q) {
+        long[] a = PolyUtils.toLongArray(p);
+        long[] b = PolyUtils.toLongArray(q);
+        long[] out = new long[a.length + b.length - 1];
+        IN_PLACE_KARATSUBA.get().multiply(a, b, out);
+        return PolyUtils.fromLongArray(out);
+    }
 }
@@ -1,41 +1,125 @@
 package com.pdp;
 
 import mpi.MPI;
+import mpi.Request;
+import mpi.Status;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
 import java.util.concurrent.atomic.AtomicLong;
-
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Sequencer based DSM.
+ *
+ * Variables are sharded over -Dpdp.dsm.sequencers=N sequencers (ranks 0 .. N-1, default 1). Each
+ * variable is owned by one of them, a sequencer that subscribes to it when there is one, and its
+ * owner orders all its updates. Order timestamps are Lamport clocks: a request carries the
+ * requester's clock and every batch carries the sequencer's clock after it. A process that follows
+ * variables of several sequencers holds ordered updates and applies them in (timestamp, owner)
+ * order once every relevant sequencer has announced a clock at least that high, so all processes
+ * apply the updates they share in the same order. Clocks are only exchanged on demand: a follower
+ * that is holding an update asks the sequencers it is waiting for, and each of them moves its
+ * clock past that timestamp and answers with it. Sequencers never talk to each other.
+ *
+ * Every process runs a communication thread that blocks in Probe and dispatches what arrives:
+ * requests (sequencer only), ordered batches and STOP. Listener callbacks run on that thread.
+ * Callers keep sending their requests and using MPI themselves, so MPI must be initialized with
+ * MPI.Init_thread at MPI.THREAD_MULTIPLE.
+ * {@link #writeAsync} and {@link #compareAndExchangeAsync} return futures that the communication
+ * thread completes once the operation has been ordered and applied locally, so any number of them
+ * can be in flight; the blocking {@link #compareAndExchange} just joins one. Dependent stages
+ * attached without an executor run on the communication thread and must not block.
+ *
+ * A sequencer batches the requests it has pending: each batch gets a contiguous range of
+ * timestamps and every subscriber receives the orders meant for it in one message per batch.
+ * The batch size is capped by -Dpdp.dsm.batchSize=N (default 64). By default a batch is whatever
+ * has queued up while the previous one was being sent; -Dpdp.dsm.batchDelayMs=N lets the sequencer
+ * wait up to N ms for more requests before sending a partial batch. MPI has no Probe with a
+ * timeout, so that wait polls with Iprobe and parks between polls with a growing backoff; other
+ * messages wait until the batch is sent.
+ */
 public class Dsm {
 
+    private static final int BATCH_SIZE = Math.max(1, Integer.getInteger("pdp.dsm.batchSize", 64));
+    private static final long BATCH_DELAY_NANOS =
+            TimeUnit.MILLISECONDS.toNanos(Math.max(0L, Long.getLong("pdp.dsm.batchDelayMs", 0L)));
+    // park between Iprobe polls while waiting for a batch to fill: 10 us, doubling up to 1 ms
+    private static final long MIN_BACKOFF_NANOS = TimeUnit.MICROSECONDS.toNanos(10);
+    private static final long MAX_BACKOFF_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final int SEQUENCERS = Math.max(1, Integer.getInteger("pdp.dsm.sequencers", 1));
+
+    // an order batch starts with the sender's clock after the batch (two ints)
+    private static final int BATCH_HEADER = 2;
+
     // MPI tags
     private static final int TAG_REQUEST = 10; // subscriber -> sequencer
     private static final int TAG_ORDER   = 11; // sequencer  -> subscribers(var)
     private static final int TAG_STOP    = 12; // sequencer  -> everyone (control)
+    private static final int TAG_CLOCK   = 13; // follower   -> sequencer (clock request)
+    private static final int TAG_STOP_ACK = 14; // follower  -> sequencer (no more clock requests)
 
     private final int rank;
     private final int size;
 
-    // We keep sequencer fixed to rank 0 (but it must be subscriber to vars it sequences).
-    private final int sequencerRank = 0;
+    // Sequencers are ranks 0 .. sequencers - 1; rank 0 also coordinates STOP.
+    private final int sequencers;
+    private final int coordinatorRank = 0;
+
+    // Owning sequencer of every variable, by variable id
+    private final int[] owner;
+
+    // Sequencers owning a variable this process subscribes to; with more than one their
+    // updates go through the Lamport merge below
+    private final int[] relevantSequencers;
+    // Sequencer: processes following several sequencers, they may ask this one for its clock
+    // and acknowledge its STOP
+    private final List<Integer> clockListeners = new ArrayList<>();
 
     // Static subscriptions
     private final Map<String, Set<Integer>> subscribers;
 
+    // Variable ids used on the wire: the index in the variable list (identical on every rank)
+    private final List<String> varNames;
+    private final Map<String, Integer> varIds = new HashMap<>();
+
     // Local replica of values (only meaningful for variables this process subscribes to)
     private final Map<String, Integer> localValues = new ConcurrentHashMap<>();
 
     // Callback to main
     private final DsmChangeListener listener;
 
-    // Sequencer state
-    private long globalSeq = 0;
+    // Sequencer state (communication thread only)
+    private long clock = 0;
+    private final Map<String, Integer> sequencedValues = new HashMap<>();
+    private final List<DsmMessage> pending = new ArrayList<>();
+    // order sends of the previous batch, waited for before the next batch goes out
+    private final List<Request> inFlight = new ArrayList<>();
 
     // Request id generator per process
     private final AtomicLong reqIdGen = new AtomicLong(1);
 
-    // CAS results awaited by origin
-    private final Map<Long, Boolean> casResults = new ConcurrentHashMap<>();
+    // Operations of this process waiting to be ordered and applied, by request id
+    private final Map<Long, CompletableFuture<Boolean>> waiters = new ConcurrentHashMap<>();
+
+    // Merge of the ordered streams (communication thread only): highest clock announced by
+    // every sequencer, updates held until they are safe to apply
+    private final long[] horizon;
+    private final PriorityQueue<DsmMessage> held;
+    // highest timestamp this process has asked every sequencer to announce
+    private final long[] clockAsked;
+    // highest timestamp applied here, sent along with requests
+    private volatile long appliedClock = 0;
+
+    // Communication thread, completes stopped when STOP is delivered
+    private final Thread commThread;
+    private final CompletableFuture<Void> stopped = new CompletableFuture<>();
+    private final Set<Integer> stopsFrom = new HashSet<>();
+    private final Set<Integer> stopAcks = new HashSet<>();
 
     public Dsm(List<String> variables,
                Map<String, Set<Integer>> subscribers,
@@ -45,11 +129,35 @@ public class Dsm {
         this.size = MPI.COMM_WORLD.Size();
         this.subscribers = new HashMap<>(subscribers);
         this.listener = listener;
+        this.varNames = new ArrayList<>(variables);
 
         // init values for all vars (0), but only subscriber processes will actually receive updates
         for (String v : variables) {
             localValues.put(v, 0);
+            sequencedValues.put(v, 0);
+            varIds.put(v, varIds.size());
+        }
+
+        this.sequencers = Math.min(SEQUENCERS, size);
+        this.owner = new int[varNames.size()];
+        for (int id = 0; id < owner.length; id++) {
+            owner[id] = chooseOwner(id, subscribers.getOrDefault(varNames.get(id), Set.of()));
         }
+        this.relevantSequencers = sequencersFollowedBy(rank);
+        for (int r = 0; r < size; r++) {
+            int[] followed = sequencersFollowedBy(r);
+            if (r != rank && followed.length > 1 && Arrays.stream(followed).anyMatch(s -> s == rank)) {
+                clockListeners.add(r);
+            }
+        }
+        this.horizon = new long[sequencers];
+        this.clockAsked = new long[sequencers];
+        this.held = new PriorityQueue<>(Comparator.<DsmMessage>comparingLong(m -> m.seq)
+                .thenComparingInt(m -> owner[varIds.get(m.var)]));
+
+        commThread = new Thread(this::communicationLoop, "dsm-comm-" + rank);
+        commThread.setDaemon(true);
+        commThread.start();
     }
 
     // ======= PUBLIC API =======
@@ -60,128 +168,403 @@ public class Dsm {
         long rid = reqIdGen.getAndIncrement();
         DsmMessage req = DsmMessage.writeRequest(var, value, rank, rid);
 
-        // request goes only to sequencer (which is also a subscriber to the variable in the intended setup)
-        MPI.COMM_WORLD.Send(new DsmMessage[]{req}, 0, 1, MPI.OBJECT, sequencerRank, TAG_REQUEST);
+        sendRequest(req);
     }
 
     /**
-     * Compare-and-exchange. Returns true if it changed the value, false otherwise.
-     * This call blocks until the ordered CAS message is delivered back to the origin.
+     * Write that completes once it has been ordered and applied to the local replica.
      */
-    public boolean compareAndExchange(String var, int expected, int newValue) {
+    public CompletableFuture<Void> writeAsync(String var, int value) {
         ensureSubscriber(var);
 
         long rid = reqIdGen.getAndIncrement();
-        DsmMessage req = DsmMessage.casRequest(var, expected, newValue, rank, rid);
+        return submit(DsmMessage.writeRequest(var, value, rank, rid)).thenApply(ignored -> null);
+    }
 
-        MPI.COMM_WORLD.Send(new DsmMessage[]{req}, 0, 1, MPI.OBJECT, sequencerRank, TAG_REQUEST);
+    /**
+     * Compare-and-exchange. Completes with true if it changed the value, false otherwise,
+     * once the ordered CAS has been applied locally.
+     */
+    public CompletableFuture<Boolean> compareAndExchangeAsync(String var, int expected, int newValue) {
+        ensureSubscriber(var);
 
-        // Wait until the ordered CAS comes back and we compute/receive its result.
-        while (!casResults.containsKey(rid)) {
-            progress();
-            // small yield to avoid burning CPU
-            try { Thread.sleep(1); } catch (InterruptedException ignored) {}
-        }
+        long rid = reqIdGen.getAndIncrement();
+        return submit(DsmMessage.casRequest(var, expected, newValue, rank, rid));
+    }
 
-        return casResults.remove(rid);
+    /**
+     * Compare-and-exchange. Returns true if it changed the value, false otherwise.
+     * This call blocks until the ordered CAS message is delivered back to the origin.
+     */
+    public boolean compareAndExchange(String var, int expected, int newValue) {
+        return compareAndExchangeAsync(var, expected, newValue).join();
     }
 
     public int getLocalValue(String var) {
         return localValues.getOrDefault(var, 0);
     }
 
+    /**
+     * Gives the communication thread up to millis ms to deliver what is in flight;
+     * returns early if STOP arrives.
+     */
     public void drainBestEffort(int millis) {
-        long end = System.currentTimeMillis() + millis;
-        while (System.currentTimeMillis() < end) {
-            progress();
-            try { Thread.sleep(1); } catch (InterruptedException ignored) {}
+        try {
+            stopped.get(millis, TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ignored) {
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (ExecutionException e) {
+            throw new IllegalStateException("DSM communication thread failed", e.getCause());
         }
     }
 
     public boolean pollStop() {
-        return MPI.COMM_WORLD.Iprobe(MPI.ANY_SOURCE, TAG_STOP) != null;
+        return stopped.isDone();
+    }
+
+    /**
+     * Blocks until STOP has been delivered and the communication thread has exited.
+     */
+    public void awaitStop() {
+        stopped.join();
+        try {
+            commThread.join();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
     }
 
+    /**
+     * Rank 0 only. STOP goes to rank 0's own communication thread. Every sequencer forwards the
+     * first STOP it sees to everyone after the orders it has already sent, and a process stops once
+     * it has STOP from every sequencer, so it applies all of their orders first.
+     * Returns once rank 0's communication thread has exited.
+     */
     public void broadcastStop() {
-        if (rank != sequencerRank) return;
-        DsmMessage stop = DsmMessage.stop();
+        if (rank != coordinatorRank) return;
+        send(DsmMessage.stop(), rank, TAG_STOP);
+        awaitStop();
+    }
+
+    // ======= INTERNALS =======
+
+    private void communicationLoop() {
+        try {
+            while (true) {
+                Status st = MPI.COMM_WORLD.Probe(MPI.ANY_SOURCE, MPI.ANY_TAG);
+                int[] wire = new int[st.Get_count(MPI.INT)];
+                MPI.COMM_WORLD.Recv(wire, 0, wire.length, MPI.INT, st.source, st.tag);
+
+                if (!stopsFrom.isEmpty() && (st.tag == TAG_REQUEST || st.tag == TAG_CLOCK)) {
+                    // this sequencer has already sent its STOP, nothing may follow it
+                    continue;
+                }
+
+                if (st.tag == TAG_REQUEST) {
+                    pending.add(DsmMessage.decode(wire, 0, varNames));
+                    collectBatch();
+                } else if (st.tag == TAG_ORDER) {
+                    // ordered batch from a sequencer, in timestamp order
+                    List<DsmMessage> orders = new ArrayList<>();
+                    for (int off = BATCH_HEADER; off < wire.length; off += DsmMessage.WIRE_INTS) {
+                        orders.add(DsmMessage.decode(wire, off, varNames));
+                    }
+                    deliver(st.source, DsmMessage.getLong(wire, 0), orders);
+                } else if (st.tag == TAG_CLOCK) {
+                    answerClock(st.source, DsmMessage.getLong(wire, 0));
+                } else if (st.tag == TAG_STOP) {
+                    if (stopsFrom.isEmpty() && rank < sequencers) {
+                        forwardStop(wire);
+                        stopFrom(rank);
+                    }
+                    stopFrom(st.source);
+                } else if (st.tag == TAG_STOP_ACK) {
+                    stopAcks.add(st.source);
+                }
+
+                // done once every sequencer has stopped and nobody can ask this one for its clock
+                if (stopsFrom.containsAll(allSequencers()) && stopAcks.containsAll(clockListeners)) {
+                    break;
+                }
+            }
+            waitInFlight();
+            // every sequencer has stopped, nothing held can be overtaken any more
+            while (!held.isEmpty()) {
+                applyOrdered(held.poll());
+            }
+            stopped.complete(null);
+            failWaiters(new IllegalStateException("DSM stopped before the operation was ordered"));
+        } catch (RuntimeException e) {
+            stopped.completeExceptionally(e);
+            failWaiters(e);
+            throw e;
+        }
+    }
+
+    private CompletableFuture<Boolean> submit(DsmMessage req) {
+        // registered before sending, the answer can come back before send() returns
+        CompletableFuture<Boolean> result = new CompletableFuture<>();
+        waiters.put(req.requestId, result);
+        if (stopped.isDone()) {
+            failWaiters(new IllegalStateException("DSM already stopped"));
+            return result;
+        }
+        sendRequest(req);
+        return result;
+    }
+
+    // request goes only to the owning sequencer, stamped with what this process has already seen
+    private void sendRequest(DsmMessage req) {
+        req.seq = appliedClock;
+        send(req, owner[varIds.get(req.var)], TAG_REQUEST);
+    }
+
+    private void failWaiters(Throwable cause) {
+        for (Long rid : waiters.keySet()) {
+            CompletableFuture<Boolean> waiter = waiters.remove(rid);
+            if (waiter != null) {
+                waiter.completeExceptionally(cause);
+            }
+        }
+    }
+
+    /**
+     * Sequencer: adds whatever requests are already waiting (up to the batch size, waiting at most
+     * the batch delay for more) and sends the batch.
+     */
+    private void collectBatch() {
+        long deadline = System.nanoTime() + BATCH_DELAY_NANOS;
+        long backoff = MIN_BACKOFF_NANOS;
+        while (pending.size() < BATCH_SIZE) {
+            if (MPI.COMM_WORLD.Iprobe(MPI.ANY_SOURCE, TAG_REQUEST) != null) {
+                pending.add(receive(MPI.ANY_SOURCE, TAG_REQUEST));
+                backoff = MIN_BACKOFF_NANOS;
+                continue;
+            }
+            long left = deadline - System.nanoTime();
+            if (left <= 0) {
+                break;
+            }
+            LockSupport.parkNanos(Math.min(backoff, left));
+            backoff = Math.min(2 * backoff, MAX_BACKOFF_NANOS);
+        }
+        flushBatch();
+    }
+
+    /**
+     * Sequencer s has sent its last order: nothing held needs to wait for it any more, and a
+     * follower tells it that no clock request will follow.
+     */
+    private void stopFrom(int s) {
+        if (!stopsFrom.add(s)) return;
+        if (s != rank && relevantSequencers.length > 1 && Arrays.stream(relevantSequencers).anyMatch(x -> x == s)) {
+            inFlight.add(MPI.COMM_WORLD.Isend(new int[BATCH_HEADER], 0, BATCH_HEADER, MPI.INT, s, TAG_STOP_ACK));
+        }
+        deliver(s, Long.MAX_VALUE, List.of());
+    }
+
+    /**
+     * Posts STOP to everyone behind the sends already in flight. The sends are only waited for when
+     * the loop exits: other sequencers may be sending their STOP to this process at the same time,
+     * and blocking here before receiving theirs could deadlock.
+     */
+    private void forwardStop(int[] stop) {
         for (int r = 0; r < size; r++) {
-            MPI.COMM_WORLD.Send(new DsmMessage[]{stop}, 0, 1, MPI.OBJECT, r, TAG_STOP);
+            if (r != rank) {
+                inFlight.add(MPI.COMM_WORLD.Isend(stop, 0, stop.length, MPI.INT, r, TAG_STOP));
+            }
         }
     }
 
     /**
-     * Called frequently from main.
-     * - Sequencer: receives requests, assigns global order, sends order only to subscribers(var).
-     * - Everyone: receives ordered updates (from sequencer) and applies them immediately
-     *   (MPI guarantees message order from same source to same dest with same tag).
+     * Orders the pending batch and sends each subscriber the orders of the variables it follows,
+     * packed back to back in timestamp order after the batch header.
      */
-    public void progress() {
-
-        // 1) Sequencer handles requests
-        if (rank == sequencerRank) {
-            while (MPI.COMM_WORLD.Iprobe(MPI.ANY_SOURCE, TAG_REQUEST) != null) {
-                DsmMessage[] buf = new DsmMessage[1];
-                MPI.COMM_WORLD.Recv(buf, 0, 1, MPI.OBJECT, MPI.ANY_SOURCE, TAG_REQUEST);
-                handleRequestAsSequencer(buf[0]);
+    private void flushBatch() {
+        int[][] out = new int[size][];
+        int[] filled = new int[size];
+        List<DsmMessage> own = new ArrayList<>();
+        for (DsmMessage req : pending) {
+            DsmMessage order = handleRequestAsSequencer(req);
+            if (order == null) continue;
+
+            // Messages go ONLY to subscribers of that variable
+            // (the sequencer delivers its own copy without a message).
+            int varId = varIds.get(order.var);
+            for (int dest : subscribers.get(order.var)) {
+                if (dest == rank) {
+                    own.add(order);
+                    continue;
+                }
+                if (out[dest] == null) {
+                    out[dest] = new int[BATCH_HEADER + pending.size() * DsmMessage.WIRE_INTS];
+                    filled[dest] = BATCH_HEADER;
+                }
+                order.encode(out[dest], filled[dest], varId);
+                filled[dest] += DsmMessage.WIRE_INTS;
+            }
+        }
+        pending.clear();
+
+        // one batch in flight: the previous one must be out before this one is posted
+        waitInFlight();
+        for (int dest = 0; dest < size; dest++) {
+            if (out[dest] != null) {
+                DsmMessage.putLong(out[dest], 0, clock);
+                inFlight.add(MPI.COMM_WORLD.Isend(out[dest], 0, filled[dest], MPI.INT, dest, TAG_ORDER));
             }
         }
+        deliver(rank, clock, own);
+    }
+
+    /**
+     * Sequencer: a follower holds an update stamped t and waits for this sequencer. Moving the
+     * clock past t and announcing it (an empty batch) guarantees that nothing ordered here from
+     * now on comes before that update.
+     */
+    private void answerClock(int follower, long t) {
+        clock = Math.max(clock, t);
+        int[] stamp = new int[BATCH_HEADER];
+        DsmMessage.putLong(stamp, 0, clock);
+        pruneInFlight();
+        inFlight.add(MPI.COMM_WORLD.Isend(stamp, 0, stamp.length, MPI.INT, follower, TAG_ORDER));
+        deliver(rank, clock, List.of());
+    }
 
-        // 2) Everyone handles ordered messages (only sent by sequencer to subscribers of that var)
-        while (MPI.COMM_WORLD.Iprobe(sequencerRank, TAG_ORDER) != null) {
-            DsmMessage[] buf = new DsmMessage[1];
-            MPI.COMM_WORLD.Recv(buf, 0, 1, MPI.OBJECT, sequencerRank, TAG_ORDER);
-            applyOrdered(buf[0]);
+    /**
+     * Merges orders from sequencer source, announced up to clock upTo, into what is applied here.
+     * With a single relevant sequencer everything is applied right away; otherwise the sequencers
+     * that hold back the next update are asked for their clock.
+     */
+    private void deliver(int source, long upTo, List<DsmMessage> orders) {
+        horizon[source] = Math.max(horizon[source], upTo);
+        held.addAll(orders);
+        while (!held.isEmpty()) {
+            DsmMessage next = held.peek();
+            int from = owner[varIds.get(next.var)];
+            boolean blocked = false;
+            for (int s : relevantSequencers) {
+                // a later order from s gets a larger timestamp than anything s announced so far
+                if (s == from || horizon[s] >= next.seq) continue;
+                if (s == rank) {
+                    // this process is that sequencer, moving its own clock is enough
+                    clock = Math.max(clock, next.seq);
+                    horizon[rank] = clock;
+                } else {
+                    askClock(s, next.seq);
+                    blocked = true;
+                }
+            }
+            if (blocked) {
+                return;
+            }
+            applyOrdered(held.poll());
         }
+    }
 
-        // 3) STOP messages are handled by main (pollStop + Recv if you want),
-        // but we can also clear them here if desired (not required).
+    private void askClock(int sequencer, long t) {
+        if (clockAsked[sequencer] >= t) return; // an answer covering t is on its way
+        clockAsked[sequencer] = t;
+        int[] stamp = new int[BATCH_HEADER];
+        DsmMessage.putLong(stamp, 0, t);
+        pruneInFlight();
+        inFlight.add(MPI.COMM_WORLD.Isend(stamp, 0, stamp.length, MPI.INT, sequencer, TAG_CLOCK));
     }
 
-    // ======= INTERNALS =======
+    private void pruneInFlight() {
+        inFlight.removeIf(r -> r.Test() != null);
+    }
+
+    private void waitInFlight() {
+        if (!inFlight.isEmpty()) {
+            Request.Waitall(inFlight.toArray(new Request[0]));
+            inFlight.clear();
+        }
+    }
 
-    private void handleRequestAsSequencer(DsmMessage req) {
+    /**
+     * Assigns the next timestamp to req and returns its order message,
+     * or null if the request is illegal.
+     */
+    private DsmMessage handleRequestAsSequencer(DsmMessage req) {
         // Enforce rule: only subscribers can modify
         Set<Integer> subs = subscribers.get(req.var);
         if (subs == null || !subs.contains(req.originRank)) {
             // Ignore illegal request (or you can throw, but throwing in MPI rank 0 is ugly).
-            return;
+            return null;
         }
 
-        long seq = ++globalSeq;
+        // Lamport clock: after everything the requester had seen
+        clock = Math.max(clock, req.seq);
+        long seq = ++clock;
 
         if (req.kind == DsmMessage.Kind.REQUEST_WRITE) {
-            DsmMessage order = DsmMessage.orderFromWrite(seq, req);
-            // send only to subscribers of that variable
-            multicastToSubscribers(req.var, order);
-
-            // update sequencer local replica (since sequencer is a subscriber in the intended setup)
-            localValues.put(req.var, req.value);
+            sequencedValues.put(req.var, req.value);
+            return DsmMessage.orderFromWrite(seq, req);
 
         } else if (req.kind == DsmMessage.Kind.REQUEST_CAS) {
 
-            // decide CAS based on current local replica at sequencer
-            // (sequencer is subscriber -> its value is consistent in the global order)
-            int cur = localValues.getOrDefault(req.var, 0);
+            // decide CAS on the owner's value, which follows exactly the order it assigns
+            int cur = sequencedValues.getOrDefault(req.var, 0);
             boolean success = (cur == req.expected);
             if (success) {
-                localValues.put(req.var, req.newValue);
+                sequencedValues.put(req.var, req.newValue);
             }
 
-            DsmMessage order = DsmMessage.orderFromCas(seq, req, success);
-            multicastToSubscribers(req.var, order);
+            return DsmMessage.orderFromCas(seq, req, success);
         }
+        return null;
     }
 
-    private void multicastToSubscribers(String var, DsmMessage order) {
-        Set<Integer> subs = subscribers.get(var);
-        if (subs == null) return;
+    /**
+     * A sequencer subscribed to the variable if there is one (spread by variable id), otherwise
+     * any sequencer by variable id.
+     */
+    private int chooseOwner(int varId, Set<Integer> subs) {
+        List<Integer> candidates = new ArrayList<>();
+        for (int s = 0; s < sequencers; s++) {
+            if (subs.contains(s)) {
+                candidates.add(s);
+            }
+        }
+        return candidates.isEmpty() ? varId % sequencers : candidates.get(varId % candidates.size());
+    }
 
-        // Messages go ONLY between subscribers of that variable.
-        // Note: sequencer is sending, but it must be included in subs by design.
-        for (int dest : subs) {
-            MPI.COMM_WORLD.Send(new DsmMessage[]{order}, 0, 1, MPI.OBJECT, dest, TAG_ORDER);
+    private int[] sequencersFollowedBy(int r) {
+        return subscribers.entrySet().stream()
+                .filter(e -> e.getValue().contains(r) && varIds.containsKey(e.getKey()))
+                .mapToInt(e -> owner[varIds.get(e.getKey())])
+                .distinct()
+                .sorted()
+                .toArray();
+    }
+
+    private Set<Integer> allSequencers() {
+        Set<Integer> all = new HashSet<>();
+        for (int s = 0; s < sequencers; s++) {
+            all.add(s);
         }
+        return all;
+    }
+
+    // ======= WIRE FORMAT =======
+
+    private int[] encode(DsmMessage msg) {
+        int[] wire = new int[DsmMessage.WIRE_INTS];
+        msg.encode(wire, 0, msg.var == null ? -1 : varIds.get(msg.var));
+        return wire;
+    }
+
+    private void send(DsmMessage msg, int dest, int tag) {
+        int[] wire = encode(msg);
+        MPI.COMM_WORLD.Send(wire, 0, wire.length, MPI.INT, dest, tag);
+    }
+
+    private DsmMessage receive(int source, int tag) {
+        int[] wire = new int[DsmMessage.WIRE_INTS];
+        MPI.COMM_WORLD.Recv(wire, 0, wire.length, MPI.INT, source, tag);
+        return DsmMessage.decode(wire, 0, varNames);
     }
 
     private void applyOrdered(DsmMessage msg) {
@@ -200,16 +583,22 @@ public class Dsm {
                 localValues.put(msg.var, msg.newValue);
                 changed = true;
             }
-            // origin learns result (even if not changed)
-            if (msg.originRank == rank) {
-                casResults.put(msg.requestId, msg.casSuccess);
-            }
         }
 
+        appliedClock = Math.max(appliedClock, msg.seq);
+
         // Callback ONLY when the variable actually changed
         if (changed && listener != null) {
             listener.onChange(msg.seq, msg.var, localValues.getOrDefault(msg.var, 0));
         }
+
+        // origin learns the operation is applied (CAS result even if not changed)
+        if (msg.originRank == rank) {
+            CompletableFuture<Boolean> waiter = waiters.remove(msg.requestId);
+            if (waiter != null) {
+                waiter.complete(msg.op != DsmMessage.Op.CAS || msg.casSuccess);
+            }
+        }
     }
 
     private void ensureSubscriber(String var) {
@@ -1,11 +1,32 @@
 package com.pdp;
 
-import java.io.Serializable;
+import java.util.List;
 
 /**
- * Serializable MPI payload.
+ * DSM message. On the wire it is a fixed block of {@link #WIRE_INTS} ints sent with MPI.INT,
+ * with the variable replaced by its id (its index in the variable list every rank is built with).
  */
-public class DsmMessage implements Serializable {
+public class DsmMessage {
+
+    public static final int WIRE_INTS = 12;
+
+    // field offsets in the wire block, longs take two ints (high, low)
+    private static final int F_KIND = 0;
+    private static final int F_OP = 1;
+    private static final int F_VAR = 2;
+    private static final int F_VALUE = 3;
+    private static final int F_EXPECTED = 4;
+    private static final int F_NEW_VALUE = 5;
+    private static final int F_SEQ = 6;
+    private static final int F_ORIGIN = 8;
+    private static final int F_REQUEST_ID = 9;
+    private static final int F_CAS_SUCCESS = 11;
+
+    private static final int NO_VAR = -1;
+    private static final int NO_OP = -1;
+
+    private static final Kind[] KINDS = Kind.values();
+    private static final Op[] OPS = Op.values();
 
     public enum Kind {
         REQUEST_WRITE,
@@ -29,7 +50,8 @@ public class DsmMessage implements Serializable {
     public int newValue;    // for CAS
 
     // Ordering
-    public long seq;        // assigned by sequencer
+    public long seq;        // order: timestamp assigned by the owning sequencer,
+                            // request: latest timestamp the requester has applied
 
     // Request tracking
     public int originRank;
@@ -90,4 +112,50 @@ public class DsmMessage implements Serializable {
         m.kind = Kind.STOP;
         return m;
     }
+
+    /**
+     * Writes this message into buf[offset .. offset + WIRE_INTS). varId is the id of {@link #var}
+     * (ignored for STOP).
+     */
+    public void encode(int[] buf, int offset, int varId) {
+        buf[offset + F_KIND] = kind.ordinal();
+        buf[offset + F_OP] = op == null ? NO_OP : op.ordinal();
+        buf[offset + F_VAR] = var == null ? NO_VAR : varId;
+        buf[offset + F_VALUE] = value;
+        buf[offset + F_EXPECTED] = expected;
+        buf[offset + F_NEW_VALUE] = newValue;
+        putLong(buf, offset + F_SEQ, seq);
+        buf[offset + F_ORIGIN] = originRank;
+        putLong(buf, offset + F_REQUEST_ID, requestId);
+        buf[offset + F_CAS_SUCCESS] = casSuccess ? 1 : 0;
+    }
+
+    public static DsmMessage decode(int[] buf, int offset, List<String> varNames) {
+        DsmMessage m = new DsmMessage();
+        m.kind = KINDS[buf[offset + F_KIND]];
+        int op = buf[offset + F_OP];
+        m.op = op == NO_OP ? null : OPS[op];
+        int var = buf[offset + F_VAR];
+        m.var = var == NO_VAR ? null : varNames.get(var);
+        m.value = buf[offset + F_VALUE];
+        m.expected = buf[offset + F_EXPECTED];
+        m.newValue = buf[offset + F_NEW_VALUE];
+        m.seq = getLong(buf, offset + F_SEQ);
+        m.originRank = buf[offset + F_ORIGIN];
+        m.requestId = getLong(buf, offset + F_REQUEST_ID);
+        m.casSuccess = buf[offset + F_CAS_SUCCESS] != 0;
+        return m;
+    }
+
+    /**
+     * A long as two ints, high half first; also used for the clock in batch headers.
+     */
+    static void putLong(int[] buf, int index, long value) {
+        buf[index] = (int) (value >>> 32);
+        buf[index + 1] = (int) value;
+    }
+
+    static long getLong(int[] buf, int index) {
+        return ((long) buf[index] << 32) | (buf[index + 1] & 0xFFFF_FFFFL);
+    }
 }
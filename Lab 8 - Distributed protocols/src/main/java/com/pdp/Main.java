@@ -3,11 +3,16 @@ package com.pdp;
 import mpi.MPI;
 
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 public class Main {
 
     public static void main(String[] args) {
-        MPI.Init(args);
+        // the DSM communication thread and this one both call MPI
+        int provided = MPI.Init_thread(args, MPI.THREAD_MULTIPLE);
+        if (provided < MPI.THREAD_MULTIPLE) {
+            throw new IllegalStateException("MPI does not support THREAD_MULTIPLE (provided level " + provided + ")");
+        }
 
         int rank = MPI.COMM_WORLD.Rank();
         int size = MPI.COMM_WORLD.Size();
@@ -15,7 +20,8 @@ public class Main {
         // Variables
         List<String> vars = List.of("A", "B", "C");
 
-        // Static subscriptions (IMPORTANT: rank 0 = sequencer trebuie să fie subscriber la toate)
+        // Static subscriptions (each variable is sequenced by one of its subscribers among the
+        // sequencer ranks 0 .. N-1, see -Dpdp.dsm.sequencers)
         // Exemplu:
         // - A: {0,2}
         // - B: {0,1,2}
@@ -42,11 +48,12 @@ public class Main {
         }
 
         if (rank == 2) {
-            boolean okA = dsm.compareAndExchange("A", 10, 15); // ok (2 e subscriber la A)
-            System.out.printf("[rank %d] CAS(A,10->15) success=%s%n", rank, okA);
-
-            boolean okB = dsm.compareAndExchange("B", 25, 30); // ok (2 e subscriber la B)
-            System.out.printf("[rank %d] CAS(B,25->30) success=%s%n", rank, okB);
+            // both CAS requests are in flight at once; A and B may belong to different sequencers,
+            // so only the order each one is applied in is fixed, not which is decided first
+            CompletableFuture<Boolean> okA = dsm.compareAndExchangeAsync("A", 10, 15); // ok (2 e subscriber la A)
+            CompletableFuture<Boolean> okB = dsm.compareAndExchangeAsync("B", 25, 30); // ok (2 e subscriber la B)
+            System.out.printf("[rank %d] CAS(A,10->15) success=%s%n", rank, okA.join());
+            System.out.printf("[rank %d] CAS(B,25->30) success=%s%n", rank, okB.join());
         }
 
         // Let messages flow
@@ -65,13 +72,7 @@ public class Main {
             dsm.broadcastStop();
         } else {
             // wait until STOP arrives
-            while (!dsm.pollStop()) {
-                dsm.progress();
-                try { Thread.sleep(1); } catch (InterruptedException ignored) {}
-            }
-            // consume STOP message
-            DsmMessage[] buf = new DsmMessage[1];
-            MPI.COMM_WORLD.Recv(buf, 0, 1, MPI.OBJECT, MPI.ANY_SOURCE, 12);
+            dsm.awaitStop();
         }
 
         MPI.Finalize();